@@ -0,0 +1,67 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Lookups, range views and construction of {@link ArraySet}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArraySetBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    @Param({"SORTED", "EYTZINGER"})
+    private ArraySet.Layout layout;
+
+    private List<Integer> elements;
+    private ArraySet<Integer> set;
+    private int[] queries;
+    private int query;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(239);
+        elements = random.ints(size, 0, 2 * size).boxed().collect(Collectors.toList());
+        set = new ArraySet<>(elements, null, layout);
+        queries = random.ints(QUERIES, 0, 2 * size).toArray();
+    }
+
+    private int nextQuery() {
+        return queries[query++ & (QUERIES - 1)];
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return set.contains(nextQuery());
+    }
+
+    @Benchmark
+    public SortedSet<Integer> subSet() {
+        int from = nextQuery();
+        return set.subSet(from, from + size / 10);
+    }
+
+    @Benchmark
+    public SortedSet<Integer> tailSet() {
+        return set.tailSet(nextQuery());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArraySet<Integer> construct() {
+        return new ArraySet<>(elements, null, layout);
+    }
+}
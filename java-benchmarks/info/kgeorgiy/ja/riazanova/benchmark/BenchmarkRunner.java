@@ -0,0 +1,33 @@
+package info.kgeorgiy.ja.riazanova.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH benchmarks of all the homeworks and writes results in JSON.
+ * <p>
+ * Usage: {@code java BenchmarkRunner [<regexp of benchmarks> [<result file>]]},
+ * by default all benchmarks are run and results are written to {@code jmh-result.json}.
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_INCLUDE = "info\\.kgeorgiy\\.ja\\.riazanova\\..*Benchmark";
+    private static final String DEFAULT_RESULT = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException {
+        if (args == null || args.length > 2) {
+            System.err.println("Usage: BenchmarkRunner [<regexp of benchmarks> [<result file>]]");
+            return;
+        }
+
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : DEFAULT_INCLUDE)
+                .resultFormat(ResultFormatType.JSON)
+                .result(args.length > 1 ? args[1] : DEFAULT_RESULT)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,54 @@
+package info.kgeorgiy.ja.riazanova.crawler;
+
+import info.kgeorgiy.java.advanced.crawler.Document;
+import info.kgeorgiy.java.advanced.crawler.Downloader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloader of a synthetic site: page {@code i} of host {@code h} links to {@code links} pages
+ * chosen deterministically among {@code pages} pages of {@code hosts} hosts.
+ * Every download sleeps for {@code latency} microseconds to model the network.
+ */
+final class FakeDownloader implements Downloader {
+    private final int hosts;
+    private final int pages;
+    private final int links;
+    private final long latency;
+
+    FakeDownloader(int hosts, int pages, int links, long latency) {
+        this.hosts = hosts;
+        this.pages = pages;
+        this.links = links;
+        this.latency = latency;
+    }
+
+    static String url(int host, int page) {
+        return "http://host" + host + ".example/page" + page;
+    }
+
+    @Override
+    public Document download(String url) throws IOException {
+        if (latency > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+        }
+
+        int seed = url.hashCode();
+        return () -> {
+            List<String> result = new ArrayList<>(links);
+            for (int i = 0; i < links; i++) {
+                int next = (seed * 31 + i) * 0x9E3779B9;
+                result.add(url(Math.floorMod(next, hosts), Math.floorMod(next >>> 7, pages)));
+            }
+            return result;
+        };
+    }
+}
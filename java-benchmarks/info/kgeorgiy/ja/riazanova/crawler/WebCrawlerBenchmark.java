@@ -0,0 +1,47 @@
+package info.kgeorgiy.ja.riazanova.crawler;
+
+import info.kgeorgiy.java.advanced.crawler.Result;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WebCrawler#download} of a synthetic site served by {@link FakeDownloader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebCrawlerBenchmark {
+    @Param({"2", "4"})
+    private int depth;
+
+    @Param({"1", "8", "32"})
+    private int downloaders;
+
+    @Param({"1", "8"})
+    private int extractors;
+
+    @Param({"0", "100"})
+    private long latency;
+
+    private WebCrawler crawler;
+
+    @Setup
+    public void setup() {
+        crawler = new WebCrawler(new FakeDownloader(10, 1000, 10, latency), downloaders, extractors, downloaders);
+    }
+
+    @TearDown
+    public void tearDown() {
+        crawler.close();
+    }
+
+    @Benchmark
+    public Result download() {
+        return crawler.download(FakeDownloader.url(0, 0), depth, Set.of());
+    }
+}
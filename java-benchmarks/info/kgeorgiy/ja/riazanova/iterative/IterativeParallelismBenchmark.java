@@ -0,0 +1,66 @@
+package info.kgeorgiy.ja.riazanova.iterative;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link IterativeParallelism} with its own threads and over {@link ParallelMapperImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterativeParallelismBenchmark {
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"1", "4", "16"})
+    private int threads;
+
+    @Param({"false", "true"})
+    private boolean useMapper;
+
+    private List<Integer> values;
+    private ParallelMapperImpl mapper;
+    private IterativeParallelism parallelism;
+
+    @Setup
+    public void setup() {
+        values = new Random(239).ints(size).boxed().collect(Collectors.toList());
+        if (useMapper) {
+            mapper = new ParallelMapperImpl(threads);
+            parallelism = new IterativeParallelism(mapper);
+        } else {
+            parallelism = new IterativeParallelism();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (mapper != null) {
+            mapper.close();
+        }
+    }
+
+    @Benchmark
+    public Integer maximum() throws InterruptedException {
+        return parallelism.maximum(threads, values, Comparator.naturalOrder(), 1);
+    }
+
+    @Benchmark
+    public int count() throws InterruptedException {
+        return parallelism.count(threads, values, value -> value % 3 == 0, 1);
+    }
+
+    @Benchmark
+    public boolean all() throws InterruptedException {
+        return parallelism.all(threads, values, value -> value != 0, 1);
+    }
+}
@@ -0,0 +1,59 @@
+package info.kgeorgiy.ja.riazanova.iterative;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link ParallelMapperImpl#map} of a cheap and of a CPU-heavy function.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMapperBenchmark {
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"1", "4", "16"})
+    private int threads;
+
+    private List<Integer> args;
+    private ParallelMapperImpl mapper;
+
+    private static final Function<Integer, Integer> CHEAP = x -> x + 1;
+    private static final Function<Integer, Integer> HEAVY = x -> {
+        int result = x;
+        for (int i = 0; i < 10_000; i++) {
+            result = result * 31 + i;
+        }
+        return result;
+    };
+
+    @Setup
+    public void setup() {
+        args = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        mapper = new ParallelMapperImpl(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mapper.close();
+    }
+
+    @Benchmark
+    public List<Integer> mapCheap() throws InterruptedException {
+        return mapper.map(CHEAP, args);
+    }
+
+    @Benchmark
+    public List<Integer> mapHeavy() throws InterruptedException {
+        return mapper.map(HEAVY, args);
+    }
+}
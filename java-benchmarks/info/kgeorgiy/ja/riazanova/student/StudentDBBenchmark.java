@@ -0,0 +1,86 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Queries of {@link StudentDB} over a random roster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentDBBenchmark {
+    private static final int NAMES = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private final StudentDB db = new StudentDB();
+    private List<Student> students;
+    private GroupName group;
+    private String lastName;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(239);
+        GroupName[] groups = GroupName.values();
+
+        students = IntStream.range(0, size)
+                .mapToObj(id -> new Student(
+                        id,
+                        "First" + random.nextInt(NAMES),
+                        "Last" + random.nextInt(NAMES),
+                        groups[random.nextInt(groups.length)]
+                ))
+                .collect(Collectors.toList());
+        group = groups[0];
+        lastName = "Last0";
+    }
+
+    @Benchmark
+    public List<Student> sortStudentsByName() {
+        return db.sortStudentsByName(students);
+    }
+
+    @Benchmark
+    public List<Student> sortStudentsById() {
+        return db.sortStudentsById(students);
+    }
+
+    @Benchmark
+    public List<Student> findStudentsByGroup() {
+        return db.findStudentsByGroup(students, group);
+    }
+
+    @Benchmark
+    public List<Student> findStudentsByLastName() {
+        return db.findStudentsByLastName(students, lastName);
+    }
+
+    @Benchmark
+    public Map<String, String> findStudentNamesByGroup() {
+        return db.findStudentNamesByGroup(students, group);
+    }
+
+    @Benchmark
+    public Set<String> getDistinctFirstNames() {
+        return db.getDistinctFirstNames(students);
+    }
+
+    @Benchmark
+    public List<String> getFullNames() {
+        return db.getFullNames(students);
+    }
+}
@@ -0,0 +1,131 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Hashing of a single file by every algorithm and walking over a list of small files.
+ * Each benchmark has its own state, so it is run only for the parameters it depends on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalkBenchmark {
+    private static final int LIST_SIZE = 1000;
+    private static final int LIST_FILE_SIZE = 4096;
+
+    /**
+     * A single file of {@code fileSize} random bytes.
+     */
+    @State(Scope.Benchmark)
+    public static class FileState {
+        @Param({"4096", "1048576", "67108864"})
+        private int fileSize;
+
+        @Param({"jenkins", "sha-256", "xxh64", "murmur3-128"})
+        private String algorithm;
+
+        private Path directory;
+        private Path file;
+        private FileDigester digester;
+        private FileDigester treeDigester;
+
+        @Setup
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("walk-benchmark");
+
+            byte[] bytes = new byte[fileSize];
+            new Random(239).nextBytes(bytes);
+            file = Files.write(directory.resolve("file"), bytes);
+
+            HashAlgorithm hashAlgorithm = HashAlgorithm.forName(algorithm);
+            digester = new FileHasher(hashAlgorithm);
+            treeDigester = new TreeHasher(hashAlgorithm, 1 << 20, null);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    /**
+     * An input file listing {@code LIST_SIZE} small files of random bytes.
+     */
+    @State(Scope.Benchmark)
+    public static class ListState {
+        @Param({"jenkins", "sha-256", "xxh64", "murmur3-128"})
+        private String algorithm;
+
+        @Param({"1", "4", "16"})
+        private int threads;
+
+        private Path directory;
+        private String[] walkArgs;
+
+        @Setup
+        public void setup() throws IOException {
+            Random random = new Random(239);
+            directory = Files.createTempDirectory("walk-benchmark");
+
+            byte[] small = new byte[LIST_FILE_SIZE];
+            for (int i = 0; i < LIST_SIZE; i++) {
+                random.nextBytes(small);
+                Files.write(directory.resolve("small-" + i), small);
+            }
+
+            Path input = Files.writeString(
+                    directory.resolve("input"),
+                    IntStream.range(0, LIST_SIZE)
+                            .mapToObj(i -> directory.resolve("small-" + i).toString())
+                            .collect(Collectors.joining(System.lineSeparator()))
+            );
+
+            walkArgs = new String[]{
+                    "-threads", Integer.toString(threads),
+                    "-hash", algorithm,
+                    input.toString(),
+                    directory.resolve("output").toString()
+            };
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public byte[] countHash(FileState state) {
+        return Walk.countHash(state.file, state.digester);
+    }
+
+    @Benchmark
+    public byte[] countTreeHash(FileState state) {
+        return Walk.countHash(state.file, state.treeDigester);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void walkList(ListState state) {
+        Walk.main(state.walkArgs);
+    }
+}
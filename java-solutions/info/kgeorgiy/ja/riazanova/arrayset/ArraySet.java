@@ -1,10 +1,34 @@
 package info.kgeorgiy.ja.riazanova.arrayset;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
-public class ArraySet<E> extends AbstractSet<E> implements SortedSet<E> {
+public class ArraySet<E> extends AbstractSet<E> implements NavigableSet<E> {
+    /**
+     * How elements are laid out for point lookups.
+     */
+    public enum Layout {
+        /**
+         * Binary search over the sorted elements.
+         */
+        SORTED,
+        /**
+         * Additional copy of the elements in Eytzinger (BFS) order, see {@link EytzingerIndex}.
+         * Takes more memory, but lookups in large sets touch fewer cache lines.
+         */
+        EYTZINGER
+    }
+
+    // arrays of this size are sorted in parallel
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
     private final List<E> elements;
     private final Comparator<? super E> comparator;
+    // null if lookups use binary search over elements
+    private final EytzingerIndex<E> index;
+    // position of elements.get(0) in the index
+    private final int offset;
 
     public ArraySet() {
         // :NOTE: not copy from other constructor
@@ -20,16 +44,97 @@ public class ArraySet<E> extends AbstractSet<E> implements SortedSet<E> {
     }
 
     public ArraySet(ArraySet<E> set) {
-        // :NOTE: new ArrayList
-        this.elements = List.copyOf(set);
-        this.comparator = set.comparator();
+        // immutable, so everything is shared
+        this.elements = set.elements;
+        this.comparator = set.comparator;
+        this.index = set.index;
+        this.offset = set.offset;
     }
 
     public ArraySet(Collection<? extends E> collection, Comparator<? super E> comparator) {
-        Set<E> set = new TreeSet<>(comparator);
-        set.addAll(collection);
-        this.elements = new ArrayList<>(set);
+        this(collection, comparator, Layout.SORTED);
+    }
+
+    public ArraySet(Collection<? extends E> collection, Comparator<? super E> comparator, Layout layout) {
+        this.elements = sortedDistinct(collection, comparator);
+        this.comparator = comparator;
+        this.index = layout == Layout.EYTZINGER ? new EytzingerIndex<>(elements, comparator) : null;
+        this.offset = 0;
+    }
+
+    /**
+     * Returns a set over records of {@code file} written by {@link #write}.
+     * The file is memory-mapped and elements are decoded on access, so nothing is read in advance
+     * and the elements do not occupy the heap. Records should be sorted by {@code comparator} and distinct,
+     * this is not checked.
+     *
+     * @throws IOException if the file cannot be mapped or its size is not a multiple of the record size.
+     */
+    public static <E> ArraySet<E> mapped(
+            Path file,
+            RecordCodec<E> codec,
+            Comparator<? super E> comparator
+    ) throws IOException {
+        return new ArraySet<>(new MappedRecordList<>(file, codec), comparator, null, 0);
+    }
+
+    /**
+     * Writes elements of this set to {@code file} as fixed-width records, in the order of this set.
+     */
+    public void write(Path file, RecordCodec<? super E> codec) throws IOException {
+        MappedRecordList.write(file, elements, codec);
+    }
+
+    /**
+     * Sorts {@code collection} and keeps the first of equal elements, as {@link TreeSet#addAll} does.
+     * Sorted sets with the same comparator are taken as is, already sorted input is checked in one pass.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> sortedDistinct(Collection<? extends E> collection, Comparator<? super E> comparator) {
+        if (collection instanceof ArraySet && Objects.equals(((ArraySet<?>) collection).comparator, comparator)) {
+            return ((ArraySet<E>) collection).elements;
+        }
+
+        E[] array = (E[]) collection.toArray();
+        if (collection instanceof SortedSet && Objects.equals(((SortedSet<?>) collection).comparator(), comparator)) {
+            return Collections.unmodifiableList(Arrays.asList(array));
+        }
+
+        if (!isSorted(array, comparator)) {
+            // both sorts are stable, so the first of equal elements stays first
+            if (array.length >= PARALLEL_SORT_THRESHOLD) {
+                Arrays.parallelSort(array, comparator);
+            } else {
+                Arrays.sort(array, comparator);
+            }
+        }
+
+        int size = 0;
+        for (E element : array) {
+            if (size == 0 || compare(array[size - 1], element, comparator) != 0) {
+                array[size++] = element;
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(size == array.length ? array : Arrays.copyOf(array, size)));
+    }
+
+    private static <E> boolean isSorted(E[] array, Comparator<? super E> comparator) {
+        for (int i = 1; i < array.length; i++) {
+            if (compare(array[i - 1], array[i], comparator) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a view over already sorted and distinct {@code elements}, nothing is copied.
+     */
+    private ArraySet(List<E> elements, Comparator<? super E> comparator, EytzingerIndex<E> index, int offset) {
+        this.elements = elements;
         this.comparator = comparator;
+        this.index = index;
+        this.offset = offset;
     }
 
     @Override
@@ -37,6 +142,11 @@ public class ArraySet<E> extends AbstractSet<E> implements SortedSet<E> {
         return elements.iterator();
     }
 
+    @Override
+    public Iterator<E> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
     @Override
     public int size() {
         return elements.size();
@@ -48,36 +158,104 @@ public class ArraySet<E> extends AbstractSet<E> implements SortedSet<E> {
     }
 
     @Override
-    public SortedSet<E> subSet(E fromElement, E toElement) {
-        if (comparator == null) {
-            List<E> elems = Arrays.asList(fromElement, toElement);
-            elems.sort(null);
-
-            if (elems.get(0) != fromElement) {
-                throw new IllegalArgumentException("fromElement > toElement..");
-            }
-        } else {
-            if (comparator.compare(fromElement, toElement) > 0) {
-                throw new IllegalArgumentException("fromElement > toElement..");
-            }
+    public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        if (compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement..");
         }
 
-        int from = find(fromElement);
-        int to = find(toElement);
+        int from = fromInclusive ? ceilingIndex(fromElement) : higherIndex(fromElement);
+        int to = (toInclusive ? floorIndex(toElement) : lowerIndex(toElement)) + 1;
 
-        return new ArraySet<>(elements.subList(from, to), comparator);
+        return view(from, Math.max(from, to));
+    }
+
+    @Override
+    public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+        int to = (inclusive ? floorIndex(toElement) : lowerIndex(toElement)) + 1;
+        return view(0, to);
+    }
+
+    @Override
+    public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+        int from = inclusive ? ceilingIndex(fromElement) : higherIndex(fromElement);
+        return view(from, elements.size());
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        return subSet(fromElement, true, toElement, false);
     }
 
     @Override
     public SortedSet<E> headSet(E toElement) {
-        int to = find(toElement);
-        return new ArraySet<>(elements.subList(0, to), comparator);
+        return headSet(toElement, false);
     }
 
     @Override
     public SortedSet<E> tailSet(E fromElement) {
-        int from = find(fromElement);
-        return new ArraySet<>(elements.subList(from, elements.size()), comparator);
+        return tailSet(fromElement, true);
+    }
+
+    // descending views do not keep the index and fall back to binary search
+    @Override
+    public NavigableSet<E> descendingSet() {
+        if (elements instanceof ReversedList) {
+            return new ArraySet<>(((ReversedList<E>) elements).reversed(), reverse(comparator), null, 0);
+        }
+        return new ArraySet<>(new ReversedList<>(elements), reverse(comparator), null, 0);
+    }
+
+    /**
+     * Returns a set over already sorted and distinct {@code elements}.
+     */
+    static <E> ArraySet<E> ofSorted(List<E> elements, Comparator<? super E> comparator) {
+        return new ArraySet<>(elements, comparator, null, 0);
+    }
+
+    /**
+     * Returns the sorted elements of this set.
+     */
+    List<E> elements() {
+        return elements;
+    }
+
+    private ArraySet<E> view(int from, int to) {
+        return new ArraySet<>(elements.subList(from, to), comparator, index, offset + from);
+    }
+
+    // natural order is kept as null, so that double reversal gives back the original comparator
+    private static <T> Comparator<? super T> reverse(Comparator<? super T> comparator) {
+        return comparator == Collections.reverseOrder() ? null : Collections.reverseOrder(comparator);
+    }
+
+    @Override
+    public E lower(E e) {
+        return getOrNull(lowerIndex(e));
+    }
+
+    @Override
+    public E floor(E e) {
+        return getOrNull(floorIndex(e));
+    }
+
+    @Override
+    public E ceiling(E e) {
+        return getOrNull(ceilingIndex(e));
+    }
+
+    @Override
+    public E higher(E e) {
+        return getOrNull(higherIndex(e));
+    }
+
+    @Override
+    public E pollFirst() {
+        throw new UnsupportedOperationException("arrayset is immutable..");
+    }
+
+    @Override
+    public E pollLast() {
+        throw new UnsupportedOperationException("arrayset is immutable..");
     }
 
     @Override
@@ -98,19 +276,55 @@ public class ArraySet<E> extends AbstractSet<E> implements SortedSet<E> {
         }
     }
 
-    private int find(E e) {
-        int index = Collections.binarySearch(elements, e, comparator);
+    private E getOrNull(int index) {
+        return 0 <= index && index < elements.size() ? elements.get(index) : null;
+    }
+
+    private int lowerIndex(E e) {
+        int index = search(e);
+        return index >= 0 ? index - 1 : -2 - index;
+    }
+
+    private int floorIndex(E e) {
+        int index = search(e);
+        return index >= 0 ? index : -2 - index;
+    }
+
+    private int ceilingIndex(E e) {
+        int index = search(e);
+        return index >= 0 ? index : -1 - index;
+    }
+
+    private int higherIndex(E e) {
+        int index = search(e);
+        return index >= 0 ? index + 1 : -1 - index;
+    }
+
+    // same contract as Collections.binarySearch
+    private int search(E e) {
+        if (index == null) {
+            return Collections.binarySearch(elements, e, comparator);
+        }
 
-        if (index >= 0) {
-            return index;
-        } else {
-            return -1 - index;
+        int position = Math.min(Math.max(index.lowerBound(e) - offset, 0), elements.size());
+        if (position < elements.size() && compare(elements.get(position), e) == 0) {
+            return position;
         }
+        return -1 - position;
+    }
+
+    private int compare(E a, E b) {
+        return compare(a, b, comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> int compare(E a, E b, Comparator<? super E> comparator) {
+        return comparator == null ? ((Comparable<? super E>) a).compareTo(b) : comparator.compare(a, b);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public boolean contains(Object e) {
-        return Collections.binarySearch(elements, (E) e, comparator) >= 0;
+        return search((E) e) >= 0;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,260 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Set operations over {@link ArraySet}s with equal comparators.
+ * Sets are merged in linear time, and when one set is much smaller than the other,
+ * its elements are searched in the larger one by galloping, so the larger set is mostly skipped.
+ * Large inputs are split into ranges of equal keys and merged in parallel.
+ * Of equal elements the one from the first set is kept.
+ */
+public final class ArraySets {
+    // galloping is used when one set is this many times smaller than the other
+    private static final int GALLOP_RATIO = 16;
+    // inputs of this total size are merged in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    private ArraySets() {
+    }
+
+    @FunctionalInterface
+    private interface Operation<E> {
+        void apply(List<E> a, List<E> b, Comparator<? super E> comparator, List<E> result);
+    }
+
+    /**
+     * Returns elements contained in any of the sets.
+     */
+    public static <E> ArraySet<E> union(ArraySet<E> a, ArraySet<E> b) {
+        return combine(a, b, ArraySets::union);
+    }
+
+    /**
+     * Returns elements contained in both sets.
+     */
+    public static <E> ArraySet<E> intersect(ArraySet<E> a, ArraySet<E> b) {
+        return combine(a, b, ArraySets::intersect);
+    }
+
+    /**
+     * Returns elements of {@code a} not contained in {@code b}.
+     */
+    public static <E> ArraySet<E> difference(ArraySet<E> a, ArraySet<E> b) {
+        return combine(a, b, ArraySets::difference);
+    }
+
+    /**
+     * Returns elements contained in exactly one of the sets.
+     */
+    public static <E> ArraySet<E> symmetricDifference(ArraySet<E> a, ArraySet<E> b) {
+        return combine(a, b, ArraySets::symmetricDifference);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> ArraySet<E> combine(ArraySet<E> a, ArraySet<E> b, Operation<E> operation) {
+        if (!Objects.equals(a.comparator(), b.comparator())) {
+            throw new IllegalArgumentException("arraysets have different comparators..");
+        }
+
+        Comparator<? super E> comparator = a.comparator() == null
+                ? (Comparator<? super E>) Comparator.naturalOrder()
+                : a.comparator();
+        List<E> first = a.elements();
+        List<E> second = b.elements();
+
+        ArrayList<E> result;
+        if (first.size() + second.size() < PARALLEL_THRESHOLD || first.isEmpty()) {
+            result = new ArrayList<>();
+            operation.apply(first, second, comparator, result);
+        } else {
+            result = inParallel(first, second, comparator, operation);
+        }
+
+        result.trimToSize();
+        return ArraySet.ofSorted(Collections.unmodifiableList(result), a.comparator());
+    }
+
+    /**
+     * Splits {@code a} into equal parts and {@code b} at the first elements of the parts,
+     * so that every pair of parts covers the same range of keys, and merges the pairs independently.
+     */
+    private static <E> ArrayList<E> inParallel(
+            List<E> a,
+            List<E> b,
+            Comparator<? super E> comparator,
+            Operation<E> operation
+    ) {
+        int parts = Math.min(Runtime.getRuntime().availableProcessors() * 4, a.size());
+        int[] aBounds = new int[parts + 1];
+        int[] bBounds = new int[parts + 1];
+        for (int i = 1; i < parts; i++) {
+            aBounds[i] = (int) ((long) a.size() * i / parts);
+            bBounds[i] = lowerBound(b, 0, b.size(), a.get(aBounds[i]), comparator);
+        }
+        aBounds[parts] = a.size();
+        bBounds[parts] = b.size();
+
+        List<List<E>> results = IntStream.range(0, parts).parallel()
+                .mapToObj(i -> {
+                    List<E> result = new ArrayList<>();
+                    operation.apply(
+                            a.subList(aBounds[i], aBounds[i + 1]),
+                            b.subList(bBounds[i], bBounds[i + 1]),
+                            comparator,
+                            result
+                    );
+                    return result;
+                })
+                .collect(Collectors.toList());
+
+        ArrayList<E> result = new ArrayList<>(results.stream().mapToInt(List::size).sum());
+        results.forEach(result::addAll);
+        return result;
+    }
+
+    private static <E> void union(List<E> a, List<E> b, Comparator<? super E> comparator, List<E> result) {
+        int i = 0;
+        int j = 0;
+        while (i < a.size() && j < b.size()) {
+            int c = comparator.compare(a.get(i), b.get(j));
+            if (c < 0) {
+                result.add(a.get(i++));
+            } else if (c > 0) {
+                result.add(b.get(j++));
+            } else {
+                result.add(a.get(i++));
+                j++;
+            }
+        }
+        result.addAll(a.subList(i, a.size()));
+        result.addAll(b.subList(j, b.size()));
+    }
+
+    private static <E> void intersect(List<E> a, List<E> b, Comparator<? super E> comparator, List<E> result) {
+        if ((long) a.size() * GALLOP_RATIO < b.size()) {
+            int j = 0;
+            for (E x : a) {
+                j = gallop(b, j, x, comparator);
+                if (j == b.size()) {
+                    break;
+                }
+                if (comparator.compare(b.get(j), x) == 0) {
+                    result.add(x);
+                    j++;
+                }
+            }
+        } else if ((long) b.size() * GALLOP_RATIO < a.size()) {
+            int i = 0;
+            for (E y : b) {
+                i = gallop(a, i, y, comparator);
+                if (i == a.size()) {
+                    break;
+                }
+                if (comparator.compare(a.get(i), y) == 0) {
+                    result.add(a.get(i++));
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.size() && j < b.size()) {
+                int c = comparator.compare(a.get(i), b.get(j));
+                if (c < 0) {
+                    i++;
+                } else if (c > 0) {
+                    j++;
+                } else {
+                    result.add(a.get(i++));
+                    j++;
+                }
+            }
+        }
+    }
+
+    private static <E> void difference(List<E> a, List<E> b, Comparator<? super E> comparator, List<E> result) {
+        if ((long) a.size() * GALLOP_RATIO < b.size()) {
+            int j = 0;
+            for (E x : a) {
+                j = gallop(b, j, x, comparator);
+                if (j == b.size() || comparator.compare(b.get(j), x) != 0) {
+                    result.add(x);
+                }
+            }
+        } else if ((long) b.size() * GALLOP_RATIO < a.size()) {
+            // copy ranges of a between the elements of b
+            int i = 0;
+            for (E y : b) {
+                int next = gallop(a, i, y, comparator);
+                result.addAll(a.subList(i, next));
+                i = next;
+                if (i < a.size() && comparator.compare(a.get(i), y) == 0) {
+                    i++;
+                }
+            }
+            result.addAll(a.subList(i, a.size()));
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.size() && j < b.size()) {
+                int c = comparator.compare(a.get(i), b.get(j));
+                if (c < 0) {
+                    result.add(a.get(i++));
+                } else if (c > 0) {
+                    j++;
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            result.addAll(a.subList(i, a.size()));
+        }
+    }
+
+    private static <E> void symmetricDifference(
+            List<E> a,
+            List<E> b,
+            Comparator<? super E> comparator,
+            List<E> result
+    ) {
+        int i = 0;
+        int j = 0;
+        while (i < a.size() && j < b.size()) {
+            int c = comparator.compare(a.get(i), b.get(j));
+            if (c < 0) {
+                result.add(a.get(i++));
+            } else if (c > 0) {
+                result.add(b.get(j++));
+            } else {
+                i++;
+                j++;
+            }
+        }
+        result.addAll(a.subList(i, a.size()));
+        result.addAll(b.subList(j, b.size()));
+    }
+
+    /**
+     * Returns the first index from {@code from} with an element not less than {@code key},
+     * checking indices {@code from}, {@code from + 1}, {@code from + 3}, {@code from + 7}, ...
+     * and then searching between the last two.
+     */
+    private static <E> int gallop(List<E> list, int from, E key, Comparator<? super E> comparator) {
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < list.size() && comparator.compare(list.get(high), key) < 0) {
+            low = high + 1;
+            high = from + step;
+            step = 2 * step + 1;
+        }
+        return lowerBound(list, low, Math.min(high, list.size()), key, comparator);
+    }
+
+    private static <E> int lowerBound(List<E> list, int from, int to, E key, Comparator<? super E> comparator) {
+        int index = Collections.binarySearch(list.subList(from, to), key, comparator);
+        return from + (index >= 0 ? index : -1 - index);
+    }
+}
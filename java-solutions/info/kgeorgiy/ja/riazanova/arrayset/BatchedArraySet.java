@@ -0,0 +1,120 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.*;
+
+/**
+ * Sorted set with batched updates, read through immutable {@link ArraySet} snapshots.
+ * Insertions and deletions are buffered in a small sorted delta, which is merged
+ * with the current snapshot in one linear pass when it grows to {@code maxDelta} elements
+ * or on {@link #flush()}. The merged set is published as a new snapshot,
+ * so readers never lock and never see a partially applied batch.
+ * <p>
+ * The latest update of a key wins: an inserted element replaces an equal one,
+ * so elements that are equal by the comparator but differ otherwise are updated too.
+ */
+public final class BatchedArraySet<E> {
+    private final Comparator<? super E> comparator;
+    private final int maxDelta;
+    // pending updates: true to insert the key, false to delete it
+    private final NavigableMap<E, Boolean> delta;
+    private volatile ArraySet<E> snapshot;
+
+    public BatchedArraySet(Comparator<? super E> comparator, int maxDelta) {
+        this(Collections.emptyList(), comparator, maxDelta);
+    }
+
+    public BatchedArraySet(Collection<? extends E> elements, Comparator<? super E> comparator, int maxDelta) {
+        if (maxDelta <= 0) {
+            throw new IllegalArgumentException("maxDelta should be positive: " + maxDelta);
+        }
+        this.comparator = comparator;
+        this.maxDelta = maxDelta;
+        this.delta = new TreeMap<>(comparator);
+        this.snapshot = new ArraySet<>(elements, comparator);
+    }
+
+    /**
+     * Returns the latest published snapshot. Updates that are not flushed yet are not visible in it.
+     */
+    public ArraySet<E> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Schedules insertion of {@code element}, replacing an equal element if there is one.
+     */
+    public synchronized void add(E element) {
+        update(element, true);
+    }
+
+    /**
+     * Schedules deletion of {@code element}.
+     */
+    public synchronized void remove(E element) {
+        update(element, false);
+    }
+
+    public synchronized void addAll(Collection<? extends E> elements) {
+        for (E element : elements) {
+            update(element, true);
+        }
+    }
+
+    public synchronized void removeAll(Collection<? extends E> elements) {
+        for (E element : elements) {
+            update(element, false);
+        }
+    }
+
+    /**
+     * Returns the number of buffered updates.
+     */
+    public synchronized int pending() {
+        return delta.size();
+    }
+
+    private void update(E element, boolean insert) {
+        // the latest update of a key wins; put alone would keep the old equal key
+        delta.remove(element);
+        delta.put(element, insert);
+        if (delta.size() >= maxDelta) {
+            flush();
+        }
+    }
+
+    /**
+     * Merges buffered updates into a new snapshot and publishes it.
+     */
+    public synchronized void flush() {
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        List<E> elements = snapshot.elements();
+        List<E> result = new ArrayList<>(elements.size() + delta.size());
+        int i = 0;
+        for (Map.Entry<E, Boolean> update : delta.entrySet()) {
+            E key = update.getKey();
+            while (i < elements.size() && compare(elements.get(i), key) < 0) {
+                result.add(elements.get(i++));
+            }
+
+            boolean present = i < elements.size() && compare(elements.get(i), key) == 0;
+            if (update.getValue()) {
+                result.add(key);
+            }
+            if (present) {
+                i++;
+            }
+        }
+        result.addAll(elements.subList(i, elements.size()));
+
+        delta.clear();
+        snapshot = ArraySet.ofSorted(Collections.unmodifiableList(result), comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(E a, E b) {
+        return comparator == null ? ((Comparable<? super E>) a).compareTo(b) : comparator.compare(a, b);
+    }
+}
@@ -0,0 +1,192 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.*;
+import java.util.stream.DoubleStream;
+
+/**
+ * Immutable sorted set of {@code double} values stored in a primitive array.
+ * Range views share the array with the set they are taken from.
+ * As a {@link SortedSet} it uses natural ordering of {@link Double}.
+ */
+public final class DoubleArraySet extends AbstractSet<Double> implements SortedSet<Double> {
+    private final double[] elements;
+    private final int from;
+    private final int to;
+
+    public DoubleArraySet() {
+        this(new double[0]);
+    }
+
+    public DoubleArraySet(double[] values) {
+        this.elements = sortedDistinct(values.clone());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    public DoubleArraySet(Collection<Double> values) {
+        this.elements = sortedDistinct(values.stream().mapToDouble(Double::doubleValue).toArray());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    private DoubleArraySet(double[] elements, int from, int to) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+    }
+
+    private static double[] sortedDistinct(double[] values) {
+        Arrays.sort(values);
+
+        int size = 0;
+        for (double value : values) {
+            if (size == 0 || Double.compare(values[size - 1], value) != 0) {
+                values[size++] = value;
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public boolean contains(double value) {
+        return search(value) >= 0;
+    }
+
+    public OptionalDouble lower(double value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index - 1 : -2 - index);
+    }
+
+    public OptionalDouble floor(double value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index : -2 - index);
+    }
+
+    public OptionalDouble ceiling(double value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index : -1 - index);
+    }
+
+    public OptionalDouble higher(double value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index + 1 : -1 - index);
+    }
+
+    /**
+     * Returns a view of values from {@code fromValue} inclusive to {@code toValue} exclusive.
+     */
+    public DoubleArraySet subSet(double fromValue, double toValue) {
+        if (Double.compare(fromValue, toValue) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement..");
+        }
+        return view(insertionPoint(fromValue), insertionPoint(toValue));
+    }
+
+    public DoubleArraySet headSet(double toValue) {
+        return view(from, insertionPoint(toValue));
+    }
+
+    public DoubleArraySet tailSet(double fromValue) {
+        return view(insertionPoint(fromValue), to);
+    }
+
+    public double firstDouble() {
+        throwIfEmpty();
+        return elements[from];
+    }
+
+    public double lastDouble() {
+        throwIfEmpty();
+        return elements[to - 1];
+    }
+
+    public double[] toDoubleArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    public DoubleStream doubleStream() {
+        return Arrays.stream(elements, from, to);
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return elements[next++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Double && contains((double) (Double) o);
+    }
+
+    @Override
+    public Comparator<? super Double> comparator() {
+        return null;
+    }
+
+    @Override
+    public DoubleArraySet subSet(Double fromElement, Double toElement) {
+        return subSet((double) fromElement, (double) toElement);
+    }
+
+    @Override
+    public DoubleArraySet headSet(Double toElement) {
+        return headSet((double) toElement);
+    }
+
+    @Override
+    public DoubleArraySet tailSet(Double fromElement) {
+        return tailSet((double) fromElement);
+    }
+
+    @Override
+    public Double first() {
+        return firstDouble();
+    }
+
+    @Override
+    public Double last() {
+        return lastDouble();
+    }
+
+    private DoubleArraySet view(int from, int to) {
+        return new DoubleArraySet(elements, from, Math.max(from, to));
+    }
+
+    private OptionalDouble getOrEmpty(int index) {
+        return from <= index && index < to ? OptionalDouble.of(elements[index]) : OptionalDouble.empty();
+    }
+
+    private void throwIfEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("arrayset is empty..");
+        }
+    }
+
+    private int insertionPoint(double value) {
+        int index = search(value);
+        return index >= 0 ? index : -1 - index;
+    }
+
+    private int search(double value) {
+        return Arrays.binarySearch(elements, from, to, value);
+    }
+}
@@ -0,0 +1,54 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorted elements stored in Eytzinger (BFS) order: children of node {@code k} are {@code 2k} and {@code 2k + 1}.
+ * First levels of the tree are adjacent in memory and stay in cache,
+ * and a lookup only goes down, so it is free of the scattered probes of binary search.
+ */
+final class EytzingerIndex<E> {
+    // tree[0] is unused
+    private final Object[] tree;
+    // position of tree[k] in the sorted order
+    private final int[] rank;
+    private final Comparator<? super E> comparator;
+    private int next;
+
+    EytzingerIndex(List<E> sorted, Comparator<? super E> comparator) {
+        this.tree = new Object[sorted.size() + 1];
+        this.rank = new int[sorted.size() + 1];
+        this.comparator = comparator;
+        fill(sorted, 1);
+    }
+
+    private void fill(List<E> sorted, int k) {
+        if (k < tree.length) {
+            fill(sorted, 2 * k);
+            tree[k] = sorted.get(next);
+            rank[k] = next++;
+            fill(sorted, 2 * k + 1);
+        }
+    }
+
+    /**
+     * Returns position of the first element not less than {@code e} in the sorted order,
+     * or the number of elements if there is none.
+     */
+    int lowerBound(E e) {
+        int k = 1;
+        while (k < tree.length) {
+            k = 2 * k + (compare(k, e) < 0 ? 1 : 0);
+        }
+        // drop the trailing right turns and the last left one
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k == 0 ? tree.length - 1 : rank[k];
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(int k, E e) {
+        E element = (E) tree[k];
+        return comparator == null ? ((Comparable<? super E>) element).compareTo(e) : comparator.compare(element, e);
+    }
+}
@@ -0,0 +1,192 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable sorted set of {@code int} values stored in a primitive array.
+ * Range views share the array with the set they are taken from.
+ * As a {@link SortedSet} it uses natural ordering of {@link Integer}.
+ */
+public final class IntArraySet extends AbstractSet<Integer> implements SortedSet<Integer> {
+    private final int[] elements;
+    private final int from;
+    private final int to;
+
+    public IntArraySet() {
+        this(new int[0]);
+    }
+
+    public IntArraySet(int[] values) {
+        this.elements = sortedDistinct(values.clone());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    public IntArraySet(Collection<Integer> values) {
+        this.elements = sortedDistinct(values.stream().mapToInt(Integer::intValue).toArray());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    private IntArraySet(int[] elements, int from, int to) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+    }
+
+    private static int[] sortedDistinct(int[] values) {
+        Arrays.sort(values);
+
+        int size = 0;
+        for (int value : values) {
+            if (size == 0 || Integer.compare(values[size - 1], value) != 0) {
+                values[size++] = value;
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public boolean contains(int value) {
+        return search(value) >= 0;
+    }
+
+    public OptionalInt lower(int value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index - 1 : -2 - index);
+    }
+
+    public OptionalInt floor(int value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index : -2 - index);
+    }
+
+    public OptionalInt ceiling(int value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index : -1 - index);
+    }
+
+    public OptionalInt higher(int value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index + 1 : -1 - index);
+    }
+
+    /**
+     * Returns a view of values from {@code fromValue} inclusive to {@code toValue} exclusive.
+     */
+    public IntArraySet subSet(int fromValue, int toValue) {
+        if (Integer.compare(fromValue, toValue) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement..");
+        }
+        return view(insertionPoint(fromValue), insertionPoint(toValue));
+    }
+
+    public IntArraySet headSet(int toValue) {
+        return view(from, insertionPoint(toValue));
+    }
+
+    public IntArraySet tailSet(int fromValue) {
+        return view(insertionPoint(fromValue), to);
+    }
+
+    public int firstInt() {
+        throwIfEmpty();
+        return elements[from];
+    }
+
+    public int lastInt() {
+        throwIfEmpty();
+        return elements[to - 1];
+    }
+
+    public int[] toIntArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    public IntStream intStream() {
+        return Arrays.stream(elements, from, to);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return elements[next++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains((int) (Integer) o);
+    }
+
+    @Override
+    public Comparator<? super Integer> comparator() {
+        return null;
+    }
+
+    @Override
+    public IntArraySet subSet(Integer fromElement, Integer toElement) {
+        return subSet((int) fromElement, (int) toElement);
+    }
+
+    @Override
+    public IntArraySet headSet(Integer toElement) {
+        return headSet((int) toElement);
+    }
+
+    @Override
+    public IntArraySet tailSet(Integer fromElement) {
+        return tailSet((int) fromElement);
+    }
+
+    @Override
+    public Integer first() {
+        return firstInt();
+    }
+
+    @Override
+    public Integer last() {
+        return lastInt();
+    }
+
+    private IntArraySet view(int from, int to) {
+        return new IntArraySet(elements, from, Math.max(from, to));
+    }
+
+    private OptionalInt getOrEmpty(int index) {
+        return from <= index && index < to ? OptionalInt.of(elements[index]) : OptionalInt.empty();
+    }
+
+    private void throwIfEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("arrayset is empty..");
+        }
+    }
+
+    private int insertionPoint(int value) {
+        int index = search(value);
+        return index >= 0 ? index : -1 - index;
+    }
+
+    private int search(int value) {
+        return Arrays.binarySearch(elements, from, to, value);
+    }
+}
@@ -0,0 +1,192 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.*;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable sorted set of {@code long} values stored in a primitive array.
+ * Range views share the array with the set they are taken from.
+ * As a {@link SortedSet} it uses natural ordering of {@link Long}.
+ */
+public final class LongArraySet extends AbstractSet<Long> implements SortedSet<Long> {
+    private final long[] elements;
+    private final int from;
+    private final int to;
+
+    public LongArraySet() {
+        this(new long[0]);
+    }
+
+    public LongArraySet(long[] values) {
+        this.elements = sortedDistinct(values.clone());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    public LongArraySet(Collection<Long> values) {
+        this.elements = sortedDistinct(values.stream().mapToLong(Long::longValue).toArray());
+        this.from = 0;
+        this.to = elements.length;
+    }
+
+    private LongArraySet(long[] elements, int from, int to) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+    }
+
+    private static long[] sortedDistinct(long[] values) {
+        Arrays.sort(values);
+
+        int size = 0;
+        for (long value : values) {
+            if (size == 0 || Long.compare(values[size - 1], value) != 0) {
+                values[size++] = value;
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public boolean contains(long value) {
+        return search(value) >= 0;
+    }
+
+    public OptionalLong lower(long value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index - 1 : -2 - index);
+    }
+
+    public OptionalLong floor(long value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index : -2 - index);
+    }
+
+    public OptionalLong ceiling(long value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index : -1 - index);
+    }
+
+    public OptionalLong higher(long value) {
+        int index = search(value);
+        return getOrEmpty(index >= 0 ? index + 1 : -1 - index);
+    }
+
+    /**
+     * Returns a view of values from {@code fromValue} inclusive to {@code toValue} exclusive.
+     */
+    public LongArraySet subSet(long fromValue, long toValue) {
+        if (Long.compare(fromValue, toValue) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement..");
+        }
+        return view(insertionPoint(fromValue), insertionPoint(toValue));
+    }
+
+    public LongArraySet headSet(long toValue) {
+        return view(from, insertionPoint(toValue));
+    }
+
+    public LongArraySet tailSet(long fromValue) {
+        return view(insertionPoint(fromValue), to);
+    }
+
+    public long firstLong() {
+        throwIfEmpty();
+        return elements[from];
+    }
+
+    public long lastLong() {
+        throwIfEmpty();
+        return elements[to - 1];
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    public LongStream longStream() {
+        return Arrays.stream(elements, from, to);
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return elements[next++];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains((long) (Long) o);
+    }
+
+    @Override
+    public Comparator<? super Long> comparator() {
+        return null;
+    }
+
+    @Override
+    public LongArraySet subSet(Long fromElement, Long toElement) {
+        return subSet((long) fromElement, (long) toElement);
+    }
+
+    @Override
+    public LongArraySet headSet(Long toElement) {
+        return headSet((long) toElement);
+    }
+
+    @Override
+    public LongArraySet tailSet(Long fromElement) {
+        return tailSet((long) fromElement);
+    }
+
+    @Override
+    public Long first() {
+        return firstLong();
+    }
+
+    @Override
+    public Long last() {
+        return lastLong();
+    }
+
+    private LongArraySet view(int from, int to) {
+        return new LongArraySet(elements, from, Math.max(from, to));
+    }
+
+    private OptionalLong getOrEmpty(int index) {
+        return from <= index && index < to ? OptionalLong.of(elements[index]) : OptionalLong.empty();
+    }
+
+    private void throwIfEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("arrayset is empty..");
+        }
+    }
+
+    private int insertionPoint(long value) {
+        int index = search(value);
+        return index >= 0 ? index : -1 - index;
+    }
+
+    private int search(long value) {
+        return Arrays.binarySearch(elements, from, to, value);
+    }
+}
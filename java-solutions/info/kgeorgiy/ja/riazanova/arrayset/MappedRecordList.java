@@ -0,0 +1,101 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of fixed-width records of a memory-mapped file, elements are decoded on every access.
+ * The file is mapped in segments of at most 1 GB, so it may be larger than a single {@link MappedByteBuffer}.
+ */
+final class MappedRecordList<E> extends AbstractList<E> implements RandomAccess {
+    private static final long MAX_SEGMENT_SIZE = 1 << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final RecordCodec<E> codec;
+    private final int recordsPerSegment;
+    private final int size;
+
+    MappedRecordList(Path file, RecordCodec<E> codec) throws IOException {
+        int recordSize = codec.recordSize();
+        if (recordSize <= 0) {
+            throw new IllegalArgumentException("Record size should be positive: " + recordSize);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize % recordSize != 0) {
+                throw new IOException("Size of " + file + " is not a multiple of record size " + recordSize);
+            }
+            if (fileSize / recordSize > Integer.MAX_VALUE) {
+                throw new IOException("Too many records in " + file + ": " + fileSize / recordSize);
+            }
+
+            this.codec = codec;
+            this.size = (int) (fileSize / recordSize);
+            this.recordsPerSegment = (int) Math.max(1, MAX_SEGMENT_SIZE / recordSize);
+
+            long segmentSize = (long) recordsPerSegment * recordSize;
+            this.segments = new MappedByteBuffer[(int) ((fileSize + segmentSize - 1) / segmentSize)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = i * segmentSize;
+                segments[i] = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        position,
+                        Math.min(segmentSize, fileSize - position)
+                );
+            }
+        }
+    }
+
+    /**
+     * Writes {@code elements} to {@code file} in the format read by this class.
+     */
+    static <E> void write(Path file, Iterable<? extends E> elements, RecordCodec<? super E> codec) throws IOException {
+        int recordSize = codec.recordSize();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(1 << 16, recordSize));
+
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        )) {
+            for (E element : elements) {
+                if (buffer.remaining() < recordSize) {
+                    flush(channel, buffer);
+                }
+                codec.write(buffer, buffer.position(), element);
+                buffer.position(buffer.position() + recordSize);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        // absolute reads do not touch the position, so the buffers are shared between threads
+        return codec.read(segments[index / recordsPerSegment], index % recordsPerSegment * codec.recordSize());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
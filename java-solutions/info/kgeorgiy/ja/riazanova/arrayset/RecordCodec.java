@@ -0,0 +1,64 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements to and from fixed-width binary records.
+ * Used to store an {@link ArraySet} in a file, see {@link ArraySet#write} and {@link ArraySet#mapped}.
+ */
+public interface RecordCodec<E> {
+    /**
+     * Big-endian 4-byte {@code int}.
+     */
+    RecordCodec<Integer> INT = new RecordCodec<>() {
+        @Override
+        public int recordSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer element) {
+            buffer.putInt(offset, element);
+        }
+    };
+
+    /**
+     * Big-endian 8-byte {@code long}.
+     */
+    RecordCodec<Long> LONG = new RecordCodec<>() {
+        @Override
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long element) {
+            buffer.putLong(offset, element);
+        }
+    };
+
+    /**
+     * Returns size of every record in bytes.
+     */
+    int recordSize();
+
+    /**
+     * Decodes a record starting at {@code offset}, position of the {@code buffer} is not changed.
+     */
+    E read(ByteBuffer buffer, int offset);
+
+    /**
+     * Encodes {@code element} starting at {@code offset}, position of the {@code buffer} is not changed.
+     */
+    void write(ByteBuffer buffer, int offset, E element);
+}
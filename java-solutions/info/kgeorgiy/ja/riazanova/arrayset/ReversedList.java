@@ -0,0 +1,33 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable view of a random access list in reverse order.
+ */
+final class ReversedList<E> extends AbstractList<E> implements RandomAccess {
+    private final List<E> list;
+
+    ReversedList(List<E> list) {
+        this.list = list;
+    }
+
+    /**
+     * Returns the list this view reverses.
+     */
+    List<E> reversed() {
+        return list;
+    }
+
+    @Override
+    public E get(int index) {
+        return list.get(list.size() - 1 - index);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+}
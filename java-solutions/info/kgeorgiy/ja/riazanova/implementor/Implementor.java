@@ -4,6 +4,7 @@ import info.kgeorgiy.java.advanced.implementor.ImplerException;
 import info.kgeorgiy.java.advanced.implementor.JarImpler;
 
 import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
 import javax.tools.ToolProvider;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -18,7 +19,15 @@ import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.CodeSource;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.jar.Attributes;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
@@ -97,10 +106,6 @@ public class Implementor implements JarImpler {
      * Constant value of zero.
      */
     private final static String ZERO = " 0";
-    /**
-     * Constant value for the empty string.
-     */
-    private final static String EMPTY_STRING = "";
     /**
      * Constant value of string "class".
      */
@@ -133,22 +138,10 @@ public class Implementor implements JarImpler {
      * Constant value for system dependent line separator.
      */
     private final static String SYSTEM_LINE_SEPARATOR = System.lineSeparator();
-    /**
-     * Constant value for the path separator inside a jar file.
-     */
-    private final static String JAR_FILE_PATH_SEPARATOR = "/";
     /**
      * Constant value for the path to the current directory.
      */
     private final static String CURRENT_DIRECTORY_PATH = ".";
-    /**
-     * A prefix for temporary directories.
-     */
-    private final static String TEMP_DIRECTORY_PREFIX = "temp";
-    /**
-     * Constant value for a key responsible for encoding.
-     */
-    private final static String ENCODING_KEY = "-encoding";
     /**
      * Constant value for a key responsible for classpath.
      */
@@ -161,10 +154,6 @@ public class Implementor implements JarImpler {
      * Vendor's name.
      */
     private final static String VENDOR_NAME = "anbtrfl";
-    /**
-     * Char separator for paths in the system.
-     */
-    private final static char FILE_PATH_SEPARATOR = File.separatorChar;
     /**
      * Char constant value for the path separator inside a jar file.
      */
@@ -203,6 +192,23 @@ public class Implementor implements JarImpler {
 
         String fileName = token.getSimpleName() + IMPL_SUFFIX + JAVA_EXTENSION;
 
+        Path outputPath = Paths.get(path.toString(), fileName);
+        try (BufferedWriter writer = Files.newBufferedWriter(outputPath)) {
+            writer.write(generate(token));
+        } catch (IOException e) {
+            throw new ImplerException("Cannot write in the output file", e);
+        }
+    }
+
+    /**
+     * Generates source code of the implementation of the specified {@code token}.
+     * Symbols out of ASCII range are escaped. The token is expected to be checked already.
+     * Does not depend on any state, so sources of different tokens may be generated concurrently.
+     *
+     * @param token type token to create implementation for.
+     * @return source code of the implementation.
+     */
+    private String generate(Class<?> token) {
         StringBuilder sb = new StringBuilder();
 
         writePackage(sb, token);
@@ -222,12 +228,7 @@ public class Implementor implements JarImpler {
 
         endClass(sb);
 
-        Path outputPath = Paths.get(path.toString(), fileName);
-        try (BufferedWriter writer = Files.newBufferedWriter(outputPath)) {
-            writer.write(toUnicode(sb.toString()));
-        } catch (IOException e) {
-            throw new ImplerException("Cannot write in the output file", e);
-        }
+        return toUnicode(sb.toString());
     }
 
     /**
@@ -243,75 +244,147 @@ public class Implementor implements JarImpler {
 
     @Override
     public void implementJar(Class<?> token, Path jarFile) throws ImplerException {
+        implementJar(Collections.singletonList(token), jarFile);
+    }
+
+    /**
+     * Produces one <var>.jar</var> file with implementations of all the specified <var>tokens</var>.
+     * <p>
+     * Sources are generated in parallel and compiled by a single compiler task,
+     * so the compiler is started once for all the tokens.
+     * Sources and class files are kept in memory, nothing but the jar file is written to disk.
+     *
+     * @param tokens  type tokens to create implementations for.
+     * @param jarFile target <var>.jar</var> file.
+     * @throws ImplerException when there are no tokens, any of the implementations cannot be generated,
+     *                         or two of them have the same name.
+     */
+    public void implementJar(Collection<? extends Class<?>> tokens, Path jarFile) throws ImplerException {
         if (jarFile == null) {
             throw new IllegalArgumentException("jar file path cannot be null");
         }
 
-        checkIfTokenIsImplementable(token);
+        if (tokens == null) {
+            throw new ImplerException("tokens must not be null..");
+        }
+
+        if (tokens.isEmpty()) {
+            throw new ImplerException("tokens must not be empty..");
+        }
+
+        Map<String, Class<?>> implementations = new LinkedHashMap<>();
+        for (Class<?> token : tokens) {
+            checkIfTokenIsImplementable(token);
+
+            Class<?> other = implementations.putIfAbsent(getImplName(token, DOT_CHAR), token);
+            if (other != null && other != token) {
+                throw new ImplerException(
+                        "Implementations of " + other.getCanonicalName() + " and " + token.getCanonicalName()
+                                + " have the same name.."
+                );
+            }
+        }
 
-        Path path;
         Path fileParent = jarFile.getParent();
         if (fileParent != null) {
-            path = createDirectories(fileParent);
-        } else {
-            path = Paths.get(CURRENT_DIRECTORY_PATH);
+            createDirectories(fileParent);
         }
 
-        Path tempDir;
-        try {
-            tempDir = Files.createTempDirectory(path, TEMP_DIRECTORY_PREFIX);
-        } catch (IOException e) {
-            throw new ImplerException("Cannot create a temp directory", e);
-        }
+        List<Class<?>> classes = new ArrayList<>(implementations.values());
+        List<JavaFileObject> sources = classes.parallelStream()
+                .map(token -> new MemorySourceFile(getImplName(token, DOT_CHAR), generate(token)))
+                .collect(Collectors.toList());
 
-        implement(token, tempDir);
+        writeJar(jarFile, compile(sources, getClassPath(classes)));
+    }
 
+    /**
+     * Compiles the specified sources in memory by a single compiler task.
+     *
+     * @param sources   sources to compile.
+     * @param classPath classpath for the compilation.
+     * @return bytecode of the compiled classes by their binary names.
+     * @throws ImplerException if there is no compiler or the compilation failed.
+     */
+    private static Map<String, byte[]> compile(List<JavaFileObject> sources, String classPath) throws ImplerException {
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
         if (compiler == null) {
             throw new ImplerException("Required non-null compiler");
         }
 
-        String tempDirString = tempDir.toString();
-        String packageDirsPath = token.getPackageName().replace(DOT_CHAR, FILE_PATH_SEPARATOR);
-        String fileNameWithoutExtension = token.getSimpleName() + IMPL_SUFFIX;
-        String fullPathToJavaFile = Paths.get(tempDirString, packageDirsPath, fileNameWithoutExtension).toString();
-
-        String[] args = new String[]{
-                ENCODING_KEY, StandardCharsets.UTF_8.name(),
-                CLASSPATH_KEY, getClassPath(token).toString(),
-                fullPathToJavaFile + JAVA_EXTENSION
-        };
+        List<String> options = List.of(CLASSPATH_KEY, classPath);
 
-        if (compiler.run(null, null, null, args) != 0) {
-            throw new ImplerException("Problems with compiling generative file");
+        try (MemoryFileManager fileManager = new MemoryFileManager(
+                compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)
+        )) {
+            if (!compiler.getTask(null, fileManager, null, options, null, sources).call()) {
+                throw new ImplerException("Problems with compiling generative file");
+            }
+            return fileManager.getClasses();
+        } catch (IOException e) {
+            throw new ImplerException("Cannot close the file manager: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            throw new ImplerException("Problems with compiling generative file: " + e.getMessage(), e);
         }
+    }
 
+    /**
+     * Writes a jar file with the specified classes.
+     *
+     * @param jarFile target <var>.jar</var> file.
+     * @param classes bytecode of the classes by their binary names.
+     * @throws ImplerException if an error occurred while writing the jar file.
+     */
+    private static void writeJar(Path jarFile, Map<String, byte[]> classes) throws ImplerException {
         Manifest manifest = new Manifest();
         Attributes attributes = manifest.getMainAttributes();
         attributes.put(Attributes.Name.MANIFEST_VERSION, MANIFEST_VERSION);
         attributes.put(Attributes.Name.IMPLEMENTATION_VENDOR, VENDOR_NAME);
 
         try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jarFile), manifest)) {
-            try {
-                String packagePath = token.getPackageName().replace(DOT_CHAR, JAR_FILE_PATH_SEPARATOR_CHAR);
-                String separator = token.getPackageName().isEmpty() ? EMPTY_STRING : JAR_FILE_PATH_SEPARATOR;
-                String classFileName = token.getSimpleName() + IMPL_SUFFIX + CLASS_EXTENSION;
-                String zipEntryName = packagePath + separator + classFileName;
-                ZipEntry zipEntry = new ZipEntry(zipEntryName);
-
-                jarOutputStream.putNextEntry(zipEntry);
-
-                Files.copy(Path.of(fullPathToJavaFile + CLASS_EXTENSION), jarOutputStream);
-            } catch (IOException e) {
-                throw new ImplerException("Problems with writing to jar-class: " + e.getMessage(), e);
+            for (Map.Entry<String, byte[]> compiled : classes.entrySet()) {
+                try {
+                    String name = compiled.getKey().replace(DOT_CHAR, JAR_FILE_PATH_SEPARATOR_CHAR);
+                    jarOutputStream.putNextEntry(new ZipEntry(name + CLASS_EXTENSION));
+                    jarOutputStream.write(compiled.getValue());
+                } catch (IOException e) {
+                    throw new ImplerException("Problems with writing to jar-class: " + e.getMessage(), e);
+                }
             }
         } catch (IOException e) {
             throw new ImplerException("Problems with creating or closing jar file: " + e.getMessage(), e);
-        } finally {
-            clean(tempDir);
         }
     }
 
+    /**
+     * Returns the full name of the implementation of the specified token, with packages separated by
+     * the given separator.
+     *
+     * @param token     type token of the implemented interface.
+     * @param separator separator of the package names.
+     * @return name of the implementation, for example {@code java/util/ListImpl} for {@link java.util.List}.
+     */
+    private static String getImplName(Class<?> token, char separator) {
+        String packageName = token.getPackageName();
+        String className = token.getSimpleName() + IMPL_SUFFIX;
+        return packageName.isEmpty() ? className : packageName.replace(DOT_CHAR, separator) + separator + className;
+    }
+
+    /**
+     * Returns classpath for all the specified tokens.
+     *
+     * @param tokens are class instances for which classpath of their locations will be retrieved.
+     * @return distinct locations of the code sources joined by {@link File#pathSeparator}.
+     * @throws ImplerException if an error occurred while transforming classpath location into {@link URI}.
+     */
+    private static String getClassPath(List<Class<?>> tokens) throws ImplerException {
+        Set<String> classPath = new LinkedHashSet<>();
+        for (Class<?> token : tokens) {
+            classPath.add(getClassPath(token).toString());
+        }
+        return String.join(File.pathSeparator, classPath);
+    }
+
     /**
      * Returns classpath for the specified token.
      *
@@ -505,28 +578,6 @@ public class Implementor implements JarImpler {
         return !method.isDefault() && !Modifier.isStatic(modifiers);
     }
 
-    /**
-     * Deletes all the files from given directory recursively, including directory itself.
-     *
-     * @param tempDir is a directory to be cleaned up.
-     * @throws ImplerException if an error occurred during the cleaning up.
-     */
-    private void clean(Path tempDir) throws ImplerException {
-        File[] files = tempDir.toFile().listFiles();
-        if (files != null) {
-            for (File file : files) {
-                clean(file.toPath());
-            }
-        }
-
-        try {
-            Files.delete(tempDir);
-        } catch (IOException e) {
-            throw new ImplerException("An error during clean up");
-        }
-    }
-
-
     /**
      * Creates directory along the path built from the root directory and following package path directories.
      *
@@ -583,6 +634,9 @@ public class Implementor implements JarImpler {
 
     /**
      * The entry point of the program.
+     * <p>
+     * Usage: {@code Implementor <class> <root>}, {@code Implementor -jar <class> <jar file>}
+     * or {@code Implementor -batch <jar file> <class> [<class> ...]} to implement several classes in one jar file.
      *
      * @param args are arguments of the command line.
      * @throws ImplerException if an error occurred during implementation of a particular token.
@@ -593,6 +647,11 @@ public class Implementor implements JarImpler {
             return;
         }
 
+        if (args.length >= 3 && "-batch".equals(args[0])) {
+            implementBatch(args);
+            return;
+        }
+
         if (args.length != 2 && args.length != 3) {
             System.err.println("Expected either two or three arguments");
             return;
@@ -641,4 +700,38 @@ public class Implementor implements JarImpler {
         impler.implement(token, path);
     }
 
-}
\ No newline at end of file
+    /**
+     * Implements classes listed in the command line in one jar file.
+     *
+     * @param args are arguments of the command line: {@code -batch <jar file> <class> [<class> ...]}.
+     * @throws ImplerException if an error occurred during implementation of the classes.
+     */
+    private static void implementBatch(String[] args) throws ImplerException {
+        for (String arg : args) {
+            if (arg == null) {
+                System.err.println("Only non-null arguments are allowed");
+                return;
+            }
+        }
+
+        Path path;
+        try {
+            path = Path.of(args[1]);
+        } catch (InvalidPathException e) {
+            System.err.println("Incorrect path given: " + e.getMessage());
+            return;
+        }
+
+        List<Class<?>> tokens = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            try {
+                tokens.add(Class.forName(args[i]));
+            } catch (ClassNotFoundException e) {
+                System.err.println("Cannot found class: " + e.getMessage());
+                return;
+            }
+        }
+
+        new Implementor().implementJar(tokens, path);
+    }
+}
@@ -0,0 +1,46 @@
+package info.kgeorgiy.ja.riazanova.implementor;
+
+import javax.tools.SimpleJavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Class file written by the compiler to memory.
+ *
+ * @author anbtrfl
+ */
+class MemoryClassFile extends SimpleJavaFileObject {
+    /**
+     * Bytecode written by the compiler.
+     */
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    /**
+     * Creates an empty class file of the specified class.
+     *
+     * @param className binary name of the class.
+     */
+    MemoryClassFile(String className) {
+        super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+    }
+
+    /**
+     * Returns a stream the compiler writes bytecode to.
+     *
+     * @return a stream collecting the bytecode in memory.
+     */
+    @Override
+    public OutputStream openOutputStream() {
+        return bytes;
+    }
+
+    /**
+     * Returns the written bytecode.
+     *
+     * @return contents of the class file.
+     */
+    byte[] getBytes() {
+        return bytes.toByteArray();
+    }
+}
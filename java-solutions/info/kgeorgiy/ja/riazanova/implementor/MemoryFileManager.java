@@ -0,0 +1,68 @@
+package info.kgeorgiy.ja.riazanova.implementor;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * File manager keeping compiled classes in memory instead of writing them to disk.
+ * Everything else, such as reading the classpath, is delegated to the standard file manager.
+ *
+ * @author anbtrfl
+ */
+class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+    /**
+     * Compiled classes by their binary names.
+     */
+    private final Map<String, MemoryClassFile> classes = new TreeMap<>();
+
+    /**
+     * Creates a file manager delegating to the specified one.
+     *
+     * @param fileManager standard file manager of the compiler.
+     */
+    MemoryFileManager(StandardJavaFileManager fileManager) {
+        super(fileManager);
+    }
+
+    /**
+     * Returns an in-memory file for class output, delegates other outputs.
+     *
+     * @param location  a location.
+     * @param className binary name of the class.
+     * @param kind      kind of the file.
+     * @param sibling   a file object to be used as hint for placement.
+     * @return a file object for output.
+     * @throws IOException if the delegate failed to create a file.
+     */
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+            Location location,
+            String className,
+            JavaFileObject.Kind kind,
+            FileObject sibling
+    ) throws IOException {
+        if (location == StandardLocation.CLASS_OUTPUT && kind == JavaFileObject.Kind.CLASS) {
+            MemoryClassFile file = new MemoryClassFile(className);
+            classes.put(className, file);
+            return file;
+        }
+        return super.getJavaFileForOutput(location, className, kind, sibling);
+    }
+
+    /**
+     * Returns bytecode of the compiled classes.
+     *
+     * @return bytecode by binary names of the classes, sorted by name.
+     */
+    Map<String, byte[]> getClasses() {
+        Map<String, byte[]> result = new TreeMap<>();
+        classes.forEach((name, file) -> result.put(name, file.getBytes()));
+        return result;
+    }
+}
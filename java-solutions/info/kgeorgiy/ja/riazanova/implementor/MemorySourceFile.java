@@ -0,0 +1,38 @@
+package info.kgeorgiy.ja.riazanova.implementor;
+
+import javax.tools.SimpleJavaFileObject;
+import java.net.URI;
+
+/**
+ * Source file kept in memory.
+ *
+ * @author anbtrfl
+ */
+class MemorySourceFile extends SimpleJavaFileObject {
+    /**
+     * Source code of the file.
+     */
+    private final String source;
+
+    /**
+     * Creates a source file of the specified class.
+     *
+     * @param className full name of the class declared in the file.
+     * @param source    source code of the file.
+     */
+    MemorySourceFile(String className, String source) {
+        super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+        this.source = source;
+    }
+
+    /**
+     * Returns source code of the file.
+     *
+     * @param ignoreEncodingErrors ignored, the source is already decoded.
+     * @return source code of the file.
+     */
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+    }
+}
@@ -0,0 +1,127 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+import info.kgeorgiy.java.advanced.student.StudentQuery;
+
+import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link StudentQuery} for large rosters: filters and aggregations scan the students in parallel,
+ * and only the students to be sorted by name are converted to {@link StudentColumns},
+ * so the sort compares ints instead of strings.
+ * Results are equal to the ones of {@link StudentDB}.
+ */
+public class ColumnarStudentDB implements StudentQuery {
+    private static final StudentPlan<Void> BY_ID = StudentPlan.of(StudentOrder.ID);
+
+    private <T> List<T> getSmth(List<Student> students, Function<Student, T> mapper) {
+        return students.parallelStream()
+                .map(mapper)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getFirstNames(List<Student> students) {
+        return getSmth(students, Student::getFirstName);
+    }
+
+    @Override
+    public List<String> getLastNames(List<Student> students) {
+        return getSmth(students, Student::getLastName);
+    }
+
+    @Override
+    public List<GroupName> getGroups(List<Student> students) {
+        return getSmth(students, Student::getGroup);
+    }
+
+    @Override
+    public List<String> getFullNames(List<Student> students) {
+        return getSmth(students, student -> student.getFirstName() + " " + student.getLastName());
+    }
+
+    // of names equal ignoring case the first one in the list is kept, so it is not parallel
+    @Override
+    public Set<String> getDistinctFirstNames(List<Student> students) {
+        Set<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Student student : students) {
+            result.add(student.getFirstName());
+        }
+        return result;
+    }
+
+    @Override
+    public String getMaxStudentFirstName(List<Student> students) {
+        if (students.isEmpty()) {
+            return "";
+        }
+        Student[] rows = students.toArray(Student[]::new);
+        // the first of students with the greatest id, as Stream.max
+        int max = IntStream.range(0, rows.length).parallel()
+                .reduce((a, b) -> rows[a].getId() >= rows[b].getId() ? a : b)
+                .orElseThrow();
+        return rows[max].getFirstName();
+    }
+
+    @Override
+    public List<Student> sortStudentsById(Collection<Student> students) {
+        return BY_ID.execute(students, null);
+    }
+
+    @Override
+    public List<Student> sortStudentsByName(Collection<Student> students) {
+        return sortedByName(students.toArray(Student[]::new));
+    }
+
+    @Override
+    public List<Student> findStudentsByFirstName(Collection<Student> students, String name) {
+        return sortedByName(select(students, student -> Objects.equals(student.getFirstName(), name)));
+    }
+
+    @Override
+    public List<Student> findStudentsByLastName(Collection<Student> students, String name) {
+        return sortedByName(select(students, student -> Objects.equals(student.getLastName(), name)));
+    }
+
+    @Override
+    public List<Student> findStudentsByGroup(Collection<Student> students, GroupName group) {
+        return sortedByName(select(students, student -> student.getGroup() == group));
+    }
+
+    @Override
+    public Map<String, String> findStudentNamesByGroup(Collection<Student> students, GroupName group) {
+        // merging maps of parallel parts costs more than one pass over the selected students
+        BinaryOperator<String> least = BinaryOperator.minBy(Comparator.naturalOrder());
+        Map<String, String> result = new HashMap<>();
+        for (Student student : select(students, student -> student.getGroup() == group)) {
+            result.merge(student.getLastName(), student.getFirstName(), least);
+        }
+        return result;
+    }
+
+    /**
+     * Returns students matching {@code predicate} in their original order.
+     */
+    private static Student[] select(Collection<Student> students, Predicate<Student> predicate) {
+        return Arrays.stream(students.toArray(Student[]::new)).parallel()
+                .filter(predicate)
+                .toArray(Student[]::new);
+    }
+
+    // by last name, first name and then by id in reverse order, as StudentDB.studentComparatorByName
+    private static List<Student> sortedByName(Student[] students) {
+        StudentColumns columns = StudentColumns.of(students);
+        int[] rows = columns.all();
+        IndexSort.sort(rows, (a, b) -> {
+            int result = Long.compare(columns.nameKey(a), columns.nameKey(b));
+            return result != 0 ? result : Integer.compare(columns.ids[b], columns.ids[a]);
+        });
+        return columns.students(rows);
+    }
+}
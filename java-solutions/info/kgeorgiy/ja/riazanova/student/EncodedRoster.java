@@ -0,0 +1,104 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable roster with names encoded by a shared {@link StudentDictionary}.
+ * Projections are unmodifiable views over the codes that return the dictionary strings,
+ * so no strings or lists of the roster size are created on a call.
+ * Equality filters compare int codes instead of strings.
+ * Results are equal to the ones of the corresponding {@link StudentDB} methods.
+ */
+public final class EncodedRoster {
+    private final StudentDictionary dictionary;
+    private final Student[] students;
+    private final int[] firstNames;
+    private final int[] lastNames;
+    private final GroupName[] groups;
+
+    public EncodedRoster(Collection<Student> students, StudentDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.students = students.toArray(Student[]::new);
+        this.firstNames = new int[this.students.length];
+        this.lastNames = new int[this.students.length];
+        this.groups = new GroupName[this.students.length];
+
+        for (int i = 0; i < this.students.length; i++) {
+            Student student = this.students[i];
+            firstNames[i] = dictionary.encode(student.getFirstName());
+            lastNames[i] = dictionary.encode(student.getLastName());
+            groups[i] = student.getGroup();
+        }
+    }
+
+    public int size() {
+        return students.length;
+    }
+
+    public List<String> getFirstNames() {
+        return new DecodedList<>(students.length, i -> dictionary.decode(firstNames[i]));
+    }
+
+    public List<String> getLastNames() {
+        return new DecodedList<>(students.length, i -> dictionary.decode(lastNames[i]));
+    }
+
+    public List<GroupName> getGroups() {
+        return new DecodedList<>(students.length, i -> groups[i]);
+    }
+
+    public List<String> getFullNames() {
+        return new DecodedList<>(students.length, i -> dictionary.fullName(firstNames[i], lastNames[i]));
+    }
+
+    public List<Student> findStudentsByFirstName(String name) {
+        int code = dictionary.code(name);
+        return code < 0 ? new ArrayList<>() : findStudentsBySmth(i -> firstNames[i] == code);
+    }
+
+    public List<Student> findStudentsByLastName(String name) {
+        int code = dictionary.code(name);
+        return code < 0 ? new ArrayList<>() : findStudentsBySmth(i -> lastNames[i] == code);
+    }
+
+    public List<Student> findStudentsByGroup(GroupName group) {
+        return findStudentsBySmth(i -> groups[i] == group);
+    }
+
+    private List<Student> findStudentsBySmth(IntPredicate predicate) {
+        List<Student> result = new ArrayList<>();
+        for (int i = 0; i < students.length; i++) {
+            if (predicate.test(i)) {
+                result.add(students[i]);
+            }
+        }
+        result.sort(StudentDB.studentComparatorByName);
+        return result;
+    }
+
+    private static final class DecodedList<T> extends AbstractList<T> implements RandomAccess {
+        private final int size;
+        private final IntFunction<T> decoder;
+
+        DecodedList(int size, IntFunction<T> decoder) {
+            this.size = size;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return decoder.apply(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
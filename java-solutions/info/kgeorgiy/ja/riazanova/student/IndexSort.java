@@ -0,0 +1,104 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable parallel merge sort of an array of row indices.
+ */
+final class IndexSort {
+    // ranges of this size are sorted by insertion
+    private static final int INSERTION_THRESHOLD = 32;
+    // ranges of this size are sorted in the current thread
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * Compares two rows by their indices.
+     */
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    private IndexSort() {
+    }
+
+    static void sort(int[] rows, RowComparator comparator) {
+        if (rows.length < 2) {
+            return;
+        }
+        if (rows.length <= PARALLEL_THRESHOLD) {
+            sort(rows.clone(), rows, 0, rows.length, comparator);
+        } else {
+            ForkJoinPool.commonPool().invoke(new SortTask(rows.clone(), rows, 0, rows.length, comparator));
+        }
+    }
+
+    /**
+     * Sorts {@code [from, to)} into {@code dst} using {@code src} with the same content as scratch space.
+     */
+    private static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int[] dst;
+        private final int from;
+        private final int to;
+        private final RowComparator comparator;
+
+        SortTask(int[] src, int[] dst, int from, int to, RowComparator comparator) {
+            this.src = src;
+            this.dst = dst;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                sort(src, dst, from, to, comparator);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new SortTask(dst, src, from, mid, comparator),
+                        new SortTask(dst, src, mid, to, comparator)
+                );
+                merge(src, dst, from, mid, to, comparator);
+            }
+        }
+    }
+
+    private static void sort(int[] src, int[] dst, int from, int to, RowComparator comparator) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = dst[i];
+                int j = i;
+                while (j > from && comparator.compare(dst[j - 1], row) > 0) {
+                    dst[j] = dst[j - 1];
+                    j--;
+                }
+                dst[j] = row;
+            }
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        sort(dst, src, from, mid, comparator);
+        sort(dst, src, mid, to, comparator);
+        merge(src, dst, from, mid, to, comparator);
+    }
+
+    // the left row goes first of equal ones, so the sort is stable
+    private static void merge(int[] src, int[] dst, int from, int mid, int to, RowComparator comparator) {
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || i < mid && comparator.compare(src[i], src[j]) <= 0) {
+                dst[k] = src[i++];
+            } else {
+                dst[k] = src[j++];
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Roster of students indexed once for repeated queries.
+ * Students are grouped by group, first name and last name into lists already sorted in
+ * {@link StudentDB} name order, so lookups return a prepared list instead of scanning and sorting.
+ * Results are the same as of the corresponding {@link StudentDB} methods over the roster, but unmodifiable.
+ */
+public final class IndexedStudentDB {
+    private final List<Student> byId;
+    private final List<Student> byName;
+    private final Map<GroupName, List<Student>> byGroup;
+    private final Map<String, List<Student>> byFirstName;
+    private final Map<String, List<Student>> byLastName;
+    private final Map<GroupName, Map<String, String>> namesByGroup;
+    private final String maxStudentFirstName;
+
+    public IndexedStudentDB(Collection<Student> students) {
+        this.byId = sorted(students, StudentDB.studentComparatorById);
+        this.byName = sorted(students, StudentDB.studentComparatorByName);
+
+        this.byGroup = Collections.unmodifiableMap(index(Student::getGroup, () -> new EnumMap<>(GroupName.class)));
+        this.byFirstName = Collections.unmodifiableMap(index(Student::getFirstName, HashMap::new));
+        this.byLastName = Collections.unmodifiableMap(index(Student::getLastName, HashMap::new));
+
+        Map<GroupName, Map<String, String>> names = new EnumMap<>(GroupName.class);
+        byGroup.forEach((group, list) -> {
+            // in name order the first student with a last name has the least first name
+            Map<String, String> groupNames = new HashMap<>();
+            for (Student student : list) {
+                groupNames.putIfAbsent(student.getLastName(), student.getFirstName());
+            }
+            names.put(group, Collections.unmodifiableMap(groupNames));
+        });
+        this.namesByGroup = Collections.unmodifiableMap(names);
+
+        // as Stream.max does, the first of the students with the max id wins;
+        // the sort is stable, so it starts the last run of equal ids
+        int first = byId.size() - 1;
+        while (first > 0 && byId.get(first - 1).getId() == byId.get(first).getId()) {
+            first--;
+        }
+        this.maxStudentFirstName = first < 0 ? "" : byId.get(first).getFirstName();
+    }
+
+    private static List<Student> sorted(Collection<Student> students, Comparator<Student> comparator) {
+        List<Student> result = new ArrayList<>(students);
+        result.sort(comparator);
+        return Collections.unmodifiableList(result);
+    }
+
+    private <K> Map<K, List<Student>> index(Function<Student, K> key, Supplier<Map<K, List<Student>>> map) {
+        return byName.stream().collect(Collectors.groupingBy(
+                key,
+                map,
+                Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)
+        ));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public List<Student> sortStudentsById() {
+        return byId;
+    }
+
+    public List<Student> sortStudentsByName() {
+        return byName;
+    }
+
+    public List<Student> findStudentsByFirstName(String name) {
+        return byFirstName.getOrDefault(name, List.of());
+    }
+
+    public List<Student> findStudentsByLastName(String name) {
+        return byLastName.getOrDefault(name, List.of());
+    }
+
+    public List<Student> findStudentsByGroup(GroupName group) {
+        return byGroup.getOrDefault(group, List.of());
+    }
+
+    public Map<String, String> findStudentNamesByGroup(GroupName group) {
+        return namesByGroup.getOrDefault(group, Map.of());
+    }
+
+    public String getMaxStudentFirstName() {
+        return maxStudentFirstName;
+    }
+}
@@ -0,0 +1,174 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.*;
+
+/**
+ * Roster of students with unique ids that is updated in place.
+ * Every update changes the indices in {@code O(log n)}, queries never scan the roster
+ * and take time proportional to their result.
+ * Results are the same as of {@link StudentDB} over the current roster,
+ * except that of first names equal ignoring case {@link #getDistinctFirstNames} returns
+ * the one added earliest. Methods are synchronized, results are copies.
+ */
+public final class LiveStudentDB {
+    private final NavigableMap<Integer, Student> byId = new TreeMap<>();
+    private final NavigableSet<Student> byName = new TreeSet<>(StudentDB.studentComparatorByName);
+    private final Map<GroupName, NavigableSet<Student>> byGroup = new HashMap<>();
+    private final Map<String, NavigableSet<Student>> byFirstName = new HashMap<>();
+    private final Map<String, NavigableSet<Student>> byLastName = new HashMap<>();
+    // group -> last name -> first name -> number of students
+    private final Map<GroupName, Map<String, NavigableMap<String, Integer>>> namesByGroup = new HashMap<>();
+    // first name ignoring case -> spellings in order of addition -> number of students
+    private final NavigableMap<String, Map<String, Integer>> firstNameSpellings =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public LiveStudentDB() {
+    }
+
+    public LiveStudentDB(Collection<Student> students) {
+        students.forEach(this::add);
+    }
+
+    /**
+     * Adds a student.
+     *
+     * @throws IllegalArgumentException if there is a student with the same id.
+     */
+    public synchronized void add(Student student) {
+        if (byId.containsKey(student.getId())) {
+            throw new IllegalArgumentException("Student with id " + student.getId() + " already exists");
+        }
+        index(student);
+    }
+
+    /**
+     * Replaces the student with the same id, for example after a transfer to another group.
+     *
+     * @throws IllegalArgumentException if there is no student with the same id.
+     */
+    public synchronized void update(Student student) {
+        Student old = byId.get(student.getId());
+        if (old == null) {
+            throw new IllegalArgumentException("No student with id " + student.getId());
+        }
+        unindex(old);
+        index(student);
+    }
+
+    /**
+     * Removes the student with the given id.
+     *
+     * @return {@code false} if there was no such student.
+     */
+    public synchronized boolean remove(int id) {
+        Student old = byId.get(id);
+        if (old == null) {
+            return false;
+        }
+        unindex(old);
+        return true;
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    private void index(Student student) {
+        byId.put(student.getId(), student);
+        byName.add(student);
+        addTo(byGroup, student.getGroup(), student);
+        addTo(byFirstName, student.getFirstName(), student);
+        addTo(byLastName, student.getLastName(), student);
+        increment(
+                namesByGroup.computeIfAbsent(student.getGroup(), group -> new HashMap<>())
+                        .computeIfAbsent(student.getLastName(), name -> new TreeMap<>()),
+                student.getFirstName()
+        );
+        increment(firstNameSpellings.computeIfAbsent(student.getFirstName(), name -> new LinkedHashMap<>()),
+                student.getFirstName());
+    }
+
+    private void unindex(Student student) {
+        byId.remove(student.getId());
+        byName.remove(student);
+        removeFrom(byGroup, student.getGroup(), student);
+        removeFrom(byFirstName, student.getFirstName(), student);
+        removeFrom(byLastName, student.getLastName(), student);
+
+        Map<String, NavigableMap<String, Integer>> groupNames = namesByGroup.get(student.getGroup());
+        if (decrement(groupNames.get(student.getLastName()), student.getFirstName())) {
+            groupNames.remove(student.getLastName());
+            if (groupNames.isEmpty()) {
+                namesByGroup.remove(student.getGroup());
+            }
+        }
+
+        if (decrement(firstNameSpellings.get(student.getFirstName()), student.getFirstName())) {
+            firstNameSpellings.remove(student.getFirstName());
+        }
+    }
+
+    private static <K> void addTo(Map<K, NavigableSet<Student>> index, K key, Student student) {
+        index.computeIfAbsent(key, k -> new TreeSet<>(StudentDB.studentComparatorByName)).add(student);
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<Student>> index, K key, Student student) {
+        NavigableSet<Student> students = index.get(key);
+        students.remove(student);
+        if (students.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static void increment(Map<String, Integer> counts, String key) {
+        counts.merge(key, 1, Integer::sum);
+    }
+
+    // returns true if counts became empty
+    private static boolean decrement(Map<String, Integer> counts, String key) {
+        counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        return counts.isEmpty();
+    }
+
+    public synchronized List<Student> sortStudentsById() {
+        return new ArrayList<>(byId.values());
+    }
+
+    public synchronized List<Student> sortStudentsByName() {
+        return new ArrayList<>(byName);
+    }
+
+    public synchronized List<Student> findStudentsByFirstName(String name) {
+        return new ArrayList<>(byFirstName.getOrDefault(name, Collections.emptyNavigableSet()));
+    }
+
+    public synchronized List<Student> findStudentsByLastName(String name) {
+        return new ArrayList<>(byLastName.getOrDefault(name, Collections.emptyNavigableSet()));
+    }
+
+    public synchronized List<Student> findStudentsByGroup(GroupName group) {
+        return new ArrayList<>(byGroup.getOrDefault(group, Collections.emptyNavigableSet()));
+    }
+
+    public synchronized Map<String, String> findStudentNamesByGroup(GroupName group) {
+        Map<String, String> result = new HashMap<>();
+        namesByGroup.getOrDefault(group, Map.of())
+                .forEach((lastName, firstNames) -> result.put(lastName, firstNames.firstKey()));
+        return result;
+    }
+
+    public synchronized Set<String> getDistinctFirstNames() {
+        Set<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map<String, Integer> spellings : firstNameSpellings.values()) {
+            result.add(spellings.keySet().iterator().next());
+        }
+        return result;
+    }
+
+    public synchronized String getMaxStudentFirstName() {
+        return byId.isEmpty() ? "" : byId.lastEntry().getValue().getFirstName();
+    }
+}
@@ -0,0 +1,96 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounded binary max-heap keeping the least {@code capacity} of the offered students.
+ * Equal students are ordered by the order they were offered in, as after a stable sort,
+ * so a page of {@code k} rows needs {@code O(k)} memory and {@code O(n log k)} time.
+ */
+final class PageHeap {
+    private final Student[] students;
+    // order in which the students were offered, breaks ties of the comparator
+    private final int[] order;
+    private final Comparator<Student> comparator;
+    private int size;
+    private int offered;
+
+    PageHeap(int capacity, Comparator<Student> comparator) {
+        this.students = new Student[capacity];
+        this.order = new int[capacity];
+        this.comparator = comparator;
+    }
+
+    /**
+     * Keeps {@code student} if it is among the least {@code capacity} students offered so far.
+     */
+    void offer(Student student) {
+        int index = offered++;
+
+        if (size < students.length) {
+            students[size] = student;
+            order[size] = index;
+            siftUp(size++);
+        } else if (size > 0 && compare(student, index, students[0], order[0]) < 0) {
+            students[0] = student;
+            order[0] = index;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Sorts the kept students in place and returns them starting from {@code from}.
+     */
+    List<Student> sorted(int from) {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        return new ArrayList<>(Arrays.asList(students).subList(Math.min(from, size), size));
+    }
+
+    private int compare(Student a, int aOrder, Student b, int bOrder) {
+        int result = comparator.compare(a, b);
+        return result != 0 ? result : Integer.compare(aOrder, bOrder);
+    }
+
+    private int compare(int i, int j) {
+        return compare(students[i], order[i], students[j], order[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0 && compare((i - 1) / 2, i) < 0) {
+            swap((i - 1) / 2, i);
+            i = (i - 1) / 2;
+        }
+    }
+
+    private void siftDown(int i, int end) {
+        while (2 * i + 1 < end) {
+            int child = 2 * i + 1;
+            if (child + 1 < end && compare(child + 1, child) > 0) {
+                child++;
+            }
+            if (compare(child, i) <= 0) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Student student = students[i];
+        students[i] = students[j];
+        students[j] = student;
+
+        int index = order[i];
+        order[i] = order[j];
+        order[j] = index;
+    }
+}
@@ -0,0 +1,53 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+/**
+ * Binary min-heap of row indices, built in linear time.
+ * Popping the first {@code k} rows costs {@code O(k log n)}, so the rest are never sorted.
+ */
+final class RowHeap {
+    private final int[] heap;
+    private final IndexSort.RowComparator comparator;
+    private int size;
+
+    /**
+     * Builds a heap in place of {@code rows}.
+     */
+    RowHeap(int[] rows, IndexSort.RowComparator comparator) {
+        this.heap = rows;
+        this.comparator = comparator;
+        this.size = rows.length;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes and returns the least row.
+     */
+    int poll() {
+        int result = heap[0];
+        heap[0] = heap[--size];
+        siftDown(0);
+        return result;
+    }
+
+    private void siftDown(int i) {
+        int row = heap[i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (comparator.compare(heap[child], row) >= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = row;
+    }
+}
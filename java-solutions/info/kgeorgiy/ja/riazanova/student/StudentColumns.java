@@ -0,0 +1,80 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Students stored by columns.
+ * Names are dictionary-encoded by their rank among distinct names, so codes compare as the names do.
+ * Columns are filled in parallel.
+ */
+final class StudentColumns {
+    private final Student[] rows;
+    final int[] ids;
+    final int[] firstNames;
+    final int[] lastNames;
+    final String[] firstNameDictionary;
+    final String[] lastNameDictionary;
+
+    private StudentColumns(Student[] rows) {
+        this.rows = rows;
+        int size = rows.length;
+
+        this.firstNameDictionary = dictionary(Student::getFirstName);
+        this.lastNameDictionary = dictionary(Student::getLastName);
+
+        this.ids = new int[size];
+        this.firstNames = new int[size];
+        this.lastNames = new int[size];
+
+        Map<String, Integer> firstNameCodes = codes(firstNameDictionary);
+        Map<String, Integer> lastNameCodes = codes(lastNameDictionary);
+        IntStream.range(0, size).parallel().forEach(row -> {
+            Student student = rows[row];
+            ids[row] = student.getId();
+            firstNames[row] = firstNameCodes.get(student.getFirstName());
+            lastNames[row] = lastNameCodes.get(student.getLastName());
+        });
+    }
+
+    /**
+     * Encodes {@code students}, the array is kept as the rows and must not be modified.
+     */
+    static StudentColumns of(Student[] students) {
+        return new StudentColumns(students);
+    }
+
+    private String[] dictionary(Function<Student, String> name) {
+        return Arrays.stream(rows).parallel().map(name).distinct().sorted().toArray(String[]::new);
+    }
+
+    private static Map<String, Integer> codes(String[] dictionary) {
+        Map<String, Integer> codes = new HashMap<>(dictionary.length * 2);
+        for (int i = 0; i < dictionary.length; i++) {
+            codes.put(dictionary[i], i);
+        }
+        return codes;
+    }
+
+    int[] all() {
+        return IntStream.range(0, rows.length).toArray();
+    }
+
+    /**
+     * Returns a key ordering rows by last name and then by first name.
+     */
+    long nameKey(int row) {
+        return (long) lastNames[row] * firstNameDictionary.length + firstNames[row];
+    }
+
+    List<Student> students(int[] selected) {
+        List<Student> result = new ArrayList<>(selected.length);
+        for (int row : selected) {
+            result.add(rows[row]);
+        }
+        return result;
+    }
+}
@@ -5,59 +5,47 @@ import info.kgeorgiy.java.advanced.student.Student;
 import info.kgeorgiy.java.advanced.student.StudentQuery;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class StudentDB implements StudentQuery {
 
-    private final Comparator<Student> studentComparatorByName = Comparator
+    static final Comparator<Student> studentComparatorByName = Comparator
             .comparing(Student::getLastName)
             .thenComparing(Student::getFirstName)
             // Student.compareTo
             .thenComparing(Student::getId, Comparator.reverseOrder());
 
             // Student.compareTo
-    private final Comparator<Student> studentComparatorById = (Comparator.comparingInt(Student::getId));
+    static final Comparator<Student> studentComparatorById = (Comparator.comparingInt(Student::getId));
 
-    private List<Student> findStudentsBySmth(Collection<Student> students, Predicate<Student> predicate) {
-        return students.stream()
-                .filter(predicate)
-                .sorted(studentComparatorByName)
-                .collect(Collectors.toList());
-    }
-
-    private <T> List<T> getSmth(List<Student> students, Function<Student, T> mapper) {
-        return students
-                .stream()
-                .map(mapper)
-                .collect(Collectors.toList());
-    }
-
-    private List<Student> sortStudentsBySmth(Collection<Student> students, Comparator<Student> comparator) {
-        return students.stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
-    }
+    private static final StudentPlan<Void> BY_ID = StudentPlan.of(StudentOrder.ID);
+    private static final StudentPlan<Void> BY_NAME = StudentPlan.of(StudentOrder.NAME);
+    private static final StudentPlan<String> FIRST_NAME_BY_NAME =
+            StudentPlan.of(StudentField.FIRST_NAME, StudentOrder.NAME);
+    private static final StudentPlan<String> LAST_NAME_BY_NAME =
+            StudentPlan.of(StudentField.LAST_NAME, StudentOrder.NAME);
+    private static final StudentPlan<GroupName> GROUP_BY_NAME = StudentPlan.of(StudentField.GROUP, StudentOrder.NAME);
+    private static final StudentPlan<GroupName> GROUP = StudentPlan.of(StudentField.GROUP, StudentOrder.NONE);
 
     @Override
     public List<String> getFirstNames(List<Student> students) {
-        return getSmth(students, Student::getFirstName);
+        return StudentPlan.project(students, StudentField.FIRST_NAME);
     }
 
     @Override
     public List<String> getLastNames(List<Student> students) {
-        return getSmth(students, Student::getLastName);
+        return StudentPlan.project(students, StudentField.LAST_NAME);
     }
 
     @Override
     public List<GroupName> getGroups(List<Student> students) {
-        return getSmth(students, Student::getGroup);
+        return StudentPlan.project(students, StudentField.GROUP);
     }
 
     @Override
     public List<String> getFullNames(List<Student> students) {
-        return getSmth(students, student -> student.getFirstName() + " " + student.getLastName());
+        return StudentPlan.project(students, StudentField.FULL_NAME);
     }
 
     @Override
@@ -79,42 +67,106 @@ public class StudentDB implements StudentQuery {
 
     @Override
     public List<Student> sortStudentsById(Collection<Student> students) {
-        return sortStudentsBySmth(students, studentComparatorById);
+        return BY_ID.execute(students, null);
     }
 
     @Override
     public List<Student> sortStudentsByName(Collection<Student> students) {
-        return sortStudentsBySmth(students, studentComparatorByName);
+        return BY_NAME.execute(students, null);
     }
 
     @Override
     public List<Student> findStudentsByLastName(Collection<Student> students, String name) {
-        return findStudentsBySmth(students, student -> Objects.equals(student.getLastName(), name));
+        return LAST_NAME_BY_NAME.execute(students, name);
     }
 
     @Override
     public List<Student> findStudentsByGroup(Collection<Student> students, GroupName group) {
-        return findStudentsBySmth(students, student -> Objects.equals(student.getGroup(), group));
+        return GROUP_BY_NAME.execute(students, group);
     }
 
     @Override
     public List<Student> findStudentsByFirstName(Collection<Student> students, String name) {
-        return findStudentsBySmth(students, student -> Objects.equals(student.getFirstName(), name));
+        return FIRST_NAME_BY_NAME.execute(students, name);
+    }
+
+    /**
+     * Returns a lazy stream of students ordered as by {@link #sortStudentsById}.
+     */
+    public Stream<Student> streamStudentsById(Collection<Student> students) {
+        return BY_ID.stream(students, null);
+    }
+
+    /**
+     * Returns a lazy stream of students ordered as by {@link #sortStudentsByName}.
+     */
+    public Stream<Student> streamStudentsByName(Collection<Student> students) {
+        return BY_NAME.stream(students, null);
+    }
+
+    /**
+     * Returns a lazy stream of students found as by {@link #findStudentsByFirstName}.
+     */
+    public Stream<Student> streamStudentsByFirstName(Collection<Student> students, String name) {
+        return FIRST_NAME_BY_NAME.stream(students, name);
+    }
+
+    /**
+     * Returns a lazy stream of students found as by {@link #findStudentsByLastName}.
+     */
+    public Stream<Student> streamStudentsByLastName(Collection<Student> students, String name) {
+        return LAST_NAME_BY_NAME.stream(students, name);
+    }
+
+    /**
+     * Returns a lazy stream of students found as by {@link #findStudentsByGroup}.
+     */
+    public Stream<Student> streamStudentsByGroup(Collection<Student> students, GroupName group) {
+        return GROUP_BY_NAME.stream(students, group);
+    }
+
+    /**
+     * Returns at most {@code limit} students of {@link #sortStudentsById} starting from {@code offset}.
+     */
+    public List<Student> sortStudentsById(Collection<Student> students, int offset, int limit) {
+        return BY_ID.execute(students, null, offset, limit);
+    }
+
+    /**
+     * Returns at most {@code limit} students of {@link #sortStudentsByName} starting from {@code offset}.
+     */
+    public List<Student> sortStudentsByName(Collection<Student> students, int offset, int limit) {
+        return BY_NAME.execute(students, null, offset, limit);
+    }
+
+    /**
+     * Returns at most {@code limit} students of {@link #findStudentsByFirstName} starting from {@code offset}.
+     */
+    public List<Student> findStudentsByFirstName(Collection<Student> students, String name, int offset, int limit) {
+        return FIRST_NAME_BY_NAME.execute(students, name, offset, limit);
+    }
+
+    /**
+     * Returns at most {@code limit} students of {@link #findStudentsByLastName} starting from {@code offset}.
+     */
+    public List<Student> findStudentsByLastName(Collection<Student> students, String name, int offset, int limit) {
+        return LAST_NAME_BY_NAME.execute(students, name, offset, limit);
+    }
+
+    /**
+     * Returns at most {@code limit} students of {@link #findStudentsByGroup} starting from {@code offset}.
+     */
+    public List<Student> findStudentsByGroup(Collection<Student> students, GroupName group, int offset, int limit) {
+        return GROUP_BY_NAME.execute(students, group, offset, limit);
     }
 
     @Override
     public Map<String, String> findStudentNamesByGroup(Collection<Student> students, GroupName group) {
-        return students.stream()
-                .filter(student -> Objects.equals(student.getGroup(), group))
-                .collect(
-                        Collectors.groupingBy(
-                                Student::getLastName,
-                                Collectors.collectingAndThen(
-                                        Collectors.minBy(Comparator.comparing(Student::getFirstName)),
-                                        student -> student.map(Student::getFirstName).orElseThrow()
-                                )
-                        )
-                );
+        Map<String, String> result = new HashMap<>();
+        for (Student student : GROUP.execute(students, group)) {
+            result.merge(student.getLastName(), student.getFirstName(), (a, b) -> a.compareTo(b) <= 0 ? a : b);
+        }
+        return result;
     }
 }
 
@@ -0,0 +1,64 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe dictionary of student names.
+ * Every distinct name gets a small int code and is stored once,
+ * full names are built once per pair of codes and cached.
+ * Codes are given in order of first encoding and never change.
+ */
+public final class StudentDictionary {
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final Map<Long, String> fullNames = new ConcurrentHashMap<>();
+    // written under the lock before the code is published in codes
+    private volatile String[] names = new String[16];
+    private int size;
+
+    /**
+     * Returns the code of {@code name}, adding it if necessary.
+     */
+    public int encode(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+
+        synchronized (this) {
+            return codes.computeIfAbsent(name, n -> {
+                if (size == names.length) {
+                    names = Arrays.copyOf(names, 2 * size);
+                }
+                names[size] = n;
+                return size++;
+            });
+        }
+    }
+
+    /**
+     * Returns the code of {@code name} or {@code -1} if it was never encoded.
+     */
+    public int code(String name) {
+        return name == null ? -1 : codes.getOrDefault(name, -1);
+    }
+
+    public String decode(int code) {
+        return names[code];
+    }
+
+    /**
+     * Returns {@code "<first name> <last name>"}, the same instance for the same codes.
+     */
+    public String fullName(int firstName, int lastName) {
+        return fullNames.computeIfAbsent(
+                (long) firstName << 32 | lastName,
+                key -> decode(firstName) + " " + decode(lastName)
+        );
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,33 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.GroupName;
+
+/**
+ * Field of a student that a {@link StudentPlan} can filter by or project to.
+ *
+ * @param <T> type of the field values.
+ */
+public final class StudentField<T> {
+    public static final StudentField<String> FIRST_NAME = new StudentField<>(Kind.FIRST_NAME);
+    public static final StudentField<String> LAST_NAME = new StudentField<>(Kind.LAST_NAME);
+    /**
+     * {@code "<first name> <last name>"}.
+     */
+    public static final StudentField<String> FULL_NAME = new StudentField<>(Kind.FULL_NAME);
+    public static final StudentField<GroupName> GROUP = new StudentField<>(Kind.GROUP);
+
+    enum Kind {
+        FIRST_NAME, LAST_NAME, FULL_NAME, GROUP
+    }
+
+    final Kind kind;
+
+    private StudentField(Kind kind) {
+        this.kind = kind;
+    }
+
+    @Override
+    public String toString() {
+        return kind.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+/**
+ * Order of students returned by a {@link StudentPlan}. Equal students keep their original order.
+ */
+public enum StudentOrder {
+    /**
+     * Original order.
+     */
+    NONE,
+    /**
+     * Ascending ids.
+     */
+    ID,
+    /**
+     * Last name, then first name, then descending ids.
+     */
+    NAME
+}
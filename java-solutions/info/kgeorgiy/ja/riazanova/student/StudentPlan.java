@@ -0,0 +1,282 @@
+package info.kgeorgiy.ja.riazanova.student;
+
+import info.kgeorgiy.java.advanced.student.Student;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Query that selects students by equality of a field and sorts them.
+ * A plan is created once and executed with different values.
+ * Every combination of a field and an order runs its own loop over
+ * sort keys extracted into arrays beforehand, instead of a stream pipeline with composed comparators:
+ * ids are sorted as packed {@code long}s, names are compared directly without key extractors.
+ *
+ * @param <V> type of the filtered field.
+ */
+public final class StudentPlan<V> {
+    // null if all students are selected
+    private final StudentField<V> filter;
+    private final StudentOrder order;
+
+    private StudentPlan(StudentField<V> filter, StudentOrder order) {
+        this.filter = filter;
+        this.order = order;
+    }
+
+    /**
+     * Returns a plan selecting all students in the given order.
+     */
+    public static StudentPlan<Void> of(StudentOrder order) {
+        return new StudentPlan<>(null, Objects.requireNonNull(order));
+    }
+
+    /**
+     * Returns a plan selecting students with {@code filter} equal to a value in the given order.
+     */
+    public static <V> StudentPlan<V> of(StudentField<V> filter, StudentOrder order) {
+        return new StudentPlan<>(Objects.requireNonNull(filter), Objects.requireNonNull(order));
+    }
+
+    /**
+     * Returns students with the filtered field equal to {@code value}, all students if there is no filter.
+     */
+    public List<Student> execute(Collection<Student> students, V value) {
+        Student[] rows = students.toArray(Student[]::new);
+        int[] selected = filter == null ? all(rows.length) : select(rows, filter.kind, value);
+
+        switch (order) {
+            case ID:
+                sortById(rows, selected);
+                break;
+            case NAME:
+                sortByName(rows, selected);
+                break;
+            case NONE:
+                break;
+        }
+
+        List<Student> result = new ArrayList<>(selected.length);
+        for (int row : selected) {
+            result.add(rows[row]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns at most {@code limit} students of {@link #execute(Collection, Object)} starting from {@code offset}.
+     * Students are scanned once and only first {@code offset + limit} of them are kept, see {@link PageHeap}.
+     *
+     * @throws IllegalArgumentException if {@code offset} or {@code limit} is negative.
+     */
+    public List<Student> execute(Collection<Student> students, V value, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit should be non-negative: " + offset + ", " + limit);
+        }
+
+        // offset + limit may overflow, and no more students than the collection has are kept
+        int capacity = (int) Math.min((long) offset + limit, students.size());
+        if (capacity <= offset) {
+            return new ArrayList<>();
+        }
+
+        PageHeap heap = new PageHeap(capacity, this::compare);
+        for (Student student : students) {
+            if (filter == null || matches(student, filter.kind, value)) {
+                heap.offer(student);
+            }
+        }
+        return heap.sorted(offset);
+    }
+
+    /**
+     * Returns a lazy stream of the students of {@link #execute(Collection, Object)}.
+     * Students are put into a heap when the stream starts and are taken from it one by one,
+     * so reading first {@code k} of {@code n} students costs {@code O(n + k log n)}.
+     */
+    public Stream<Student> stream(Collection<Student> students, V value) {
+        return StreamSupport.stream(() -> {
+            Student[] rows = students.toArray(Student[]::new);
+            int[] selected = filter == null ? all(rows.length) : select(rows, filter.kind, value);
+            RowHeap heap = new RowHeap(selected, (a, b) -> {
+                int result = compare(rows[a], rows[b]);
+                return result != 0 ? result : Integer.compare(a, b);
+            });
+
+            return new Spliterators.AbstractSpliterator<Student>(selected.length, Spliterator.ORDERED) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Student> action) {
+                    if (heap.isEmpty()) {
+                        return false;
+                    }
+                    action.accept(rows[heap.poll()]);
+                    return true;
+                }
+            };
+        }, Spliterator.ORDERED, false);
+    }
+
+    /**
+     * Returns values of {@code field} of every student.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> project(List<Student> students, StudentField<T> field) {
+        List<Object> result = new ArrayList<>(students.size());
+        switch (field.kind) {
+            case FIRST_NAME:
+                for (Student student : students) {
+                    result.add(student.getFirstName());
+                }
+                break;
+            case LAST_NAME:
+                for (Student student : students) {
+                    result.add(student.getLastName());
+                }
+                break;
+            case FULL_NAME:
+                for (Student student : students) {
+                    result.add(student.getFirstName() + " " + student.getLastName());
+                }
+                break;
+            case GROUP:
+                for (Student student : students) {
+                    result.add(student.getGroup());
+                }
+                break;
+        }
+        return (List<T>) result;
+    }
+
+    private static int[] all(int size) {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    private static int[] select(Student[] rows, StudentField.Kind kind, Object value) {
+        int[] selected = new int[rows.length];
+        int size = 0;
+        switch (kind) {
+            case FIRST_NAME:
+                for (int i = 0; i < rows.length; i++) {
+                    if (Objects.equals(rows[i].getFirstName(), value)) {
+                        selected[size++] = i;
+                    }
+                }
+                break;
+            case LAST_NAME:
+                for (int i = 0; i < rows.length; i++) {
+                    if (Objects.equals(rows[i].getLastName(), value)) {
+                        selected[size++] = i;
+                    }
+                }
+                break;
+            case FULL_NAME:
+                for (int i = 0; i < rows.length; i++) {
+                    if (isFullName(rows[i], (String) value)) {
+                        selected[size++] = i;
+                    }
+                }
+                break;
+            case GROUP:
+                for (int i = 0; i < rows.length; i++) {
+                    if (rows[i].getGroup() == value) {
+                        selected[size++] = i;
+                    }
+                }
+                break;
+        }
+        return Arrays.copyOf(selected, size);
+    }
+
+    // a single student check for the plans that do not select all rows at once
+    private static boolean matches(Student student, StudentField.Kind kind, Object value) {
+        switch (kind) {
+            case FIRST_NAME:
+                return Objects.equals(student.getFirstName(), value);
+            case LAST_NAME:
+                return Objects.equals(student.getLastName(), value);
+            case FULL_NAME:
+                return isFullName(student, (String) value);
+            case GROUP:
+                return student.getGroup() == value;
+            default:
+                throw new AssertionError(kind);
+        }
+    }
+
+    // the order of the plan for a single pair of students, equal students compare as 0
+    private int compare(Student a, Student b) {
+        switch (order) {
+            case ID:
+                return Integer.compare(a.getId(), b.getId());
+            case NAME:
+                int result = a.getLastName().compareTo(b.getLastName());
+                if (result == 0) {
+                    result = a.getFirstName().compareTo(b.getFirstName());
+                }
+                return result != 0 ? result : Integer.compare(b.getId(), a.getId());
+            case NONE:
+                return 0;
+            default:
+                throw new AssertionError(order);
+        }
+    }
+
+    // compares without building the full name
+    private static boolean isFullName(Student student, String name) {
+        String first = student.getFirstName();
+        String last = student.getLastName();
+        return name != null
+                && name.length() == first.length() + 1 + last.length()
+                && name.startsWith(first)
+                && name.charAt(first.length()) == ' '
+                && name.endsWith(last);
+    }
+
+    // row numbers in the low bits keep equal ids in their original order,
+    // small arrays are sorted sequentially by Arrays.parallelSort itself
+    private static void sortById(Student[] rows, int[] selected) {
+        long[] keys = new long[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            keys[i] = (long) rows[selected[i]].getId() << 32 | selected[i];
+        }
+        Arrays.parallelSort(keys);
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = (int) keys[i];
+        }
+    }
+
+    private static void sortByName(Student[] rows, int[] selected) {
+        int size = selected.length;
+        String[] lastNames = new String[size];
+        String[] firstNames = new String[size];
+        int[] ids = new int[size];
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            Student student = rows[selected[i]];
+            lastNames[i] = student.getLastName();
+            firstNames[i] = student.getFirstName();
+            ids[i] = student.getId();
+            positions[i] = i;
+        }
+
+        IndexSort.sort(positions, (a, b) -> {
+            int result = lastNames[a].compareTo(lastNames[b]);
+            if (result == 0) {
+                result = firstNames[a].compareTo(firstNames[b]);
+            }
+            return result != 0 ? result : Integer.compare(ids[b], ids[a]);
+        });
+
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = selected[positions[i]];
+        }
+        System.arraycopy(sorted, 0, selected, 0, size);
+    }
+}
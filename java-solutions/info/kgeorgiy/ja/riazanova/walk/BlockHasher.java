@@ -0,0 +1,65 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Base for hash functions that consume input by fixed-size blocks of little-endian words.
+ * Bytes that do not fill a whole block are kept until the next {@link #update(ByteBuffer)}.
+ */
+abstract class BlockHasher implements Hasher {
+    private final int blockSize;
+    private final ByteBuffer block;
+    private long length = 0;
+
+    BlockHasher(int blockSize) {
+        this.blockSize = blockSize;
+        this.block = ByteBuffer.allocate(blockSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public final void update(ByteBuffer data) {
+        ByteBuffer input = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+        data.position(data.limit());
+        length += input.remaining();
+
+        if (block.position() > 0) {
+            while (block.hasRemaining() && input.hasRemaining()) {
+                block.put(input.get());
+            }
+
+            if (block.hasRemaining()) {
+                return;
+            }
+
+            processBlock(block, 0);
+            block.clear();
+        }
+
+        int position = input.position();
+        for (int limit = input.limit(); limit - position >= blockSize; position += blockSize) {
+            processBlock(input, position);
+        }
+
+        block.put(input.position(position));
+    }
+
+    @Override
+    public final byte[] digest() {
+        return finish(block.flip(), length);
+    }
+
+    /**
+     * Processes {@code blockSize} bytes of {@code data} starting from {@code offset}.
+     * Byte order of {@code data} is little-endian.
+     */
+    protected abstract void processBlock(ByteBuffer data, int offset);
+
+    /**
+     * Processes the last incomplete block and computes the digest.
+     *
+     * @param tail   remaining bytes, less than a block, in little-endian order.
+     * @param length total number of bytes hashed.
+     */
+    protected abstract byte[] finish(ByteBuffer tail, long length);
+}
@@ -0,0 +1,210 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds files with equal contents among the files of the input list.
+ * <p>
+ * Files are grouped by size first, then groups are split by a fast hash of the first and the last
+ * {@value #SAMPLE_SIZE} bytes, and only files that still collide are hashed as a whole.
+ * If the output digest is shorter than {@value #MIN_DIGEST_LENGTH} bytes, groups are confirmed
+ * by a 128-bit hash first, so that a collision of a narrow hash is not reported as duplicates.
+ * Files that cannot be read are skipped.
+ * <p>
+ * Every group of duplicates is written as lines {@code <digest> <file>} in the order of the input list,
+ * groups are separated by empty lines.
+ */
+final class DuplicateFinder {
+    private static final int SAMPLE_SIZE = 1 << 12;
+    private static final int MIN_DIGEST_LENGTH = 16;
+    private static final FileDigester CONFIRMATION = new FileHasher(HashAlgorithm.MURMUR3_128);
+
+    private DuplicateFinder() {
+    }
+
+    /**
+     * Writes groups of duplicate files listed in {@code in}.
+     *
+     * @param threads  number of threads to hash files with.
+     * @param digester computes digests of the whole files.
+     */
+    static void find(
+            BufferedReader in,
+            ResultWriter out,
+            int threads,
+            FileDigester digester,
+            WalkMetrics metrics
+    ) throws IOException {
+        BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue);
+        metrics.setQueueDepth(queue::size);
+
+        try {
+            List<List<Candidate>> groups = groupBySize(in, metrics);
+            groups = regroup(groups, executor, DuplicateFinder::sample);
+            if (digester.algorithm().getDigestLength() < MIN_DIGEST_LENGTH) {
+                groups = regroup(groups, executor, candidate -> CONFIRMATION.digest(candidate.path));
+            }
+            groups = regroup(groups, executor, candidate -> digester.digest(candidate.path));
+
+            groups.sort(Comparator.comparingInt(group -> group.get(0).index));
+            for (List<Candidate> group : groups) {
+                for (Candidate candidate : group) {
+                    out.write(candidate.key, candidate.name);
+                }
+                out.writeEmptyLine();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<List<Candidate>> groupBySize(BufferedReader in, WalkMetrics metrics) throws IOException {
+        Map<Long, List<Candidate>> bySize = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        String fileName;
+        int index = 0;
+
+        while ((fileName = in.readLine()) != null) {
+            if (!names.add(fileName)) {
+                continue;
+            }
+
+            try {
+                Path path = Path.of(fileName);
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+                if (attributes.isRegularFile()) {
+                    bySize.computeIfAbsent(attributes.size(), size -> new ArrayList<>())
+                            .add(new Candidate(index++, fileName, path, attributes.size()));
+                }
+            } catch (InvalidPathException | IOException | SecurityException e) {
+                metrics.recordError(e);
+            }
+        }
+
+        List<List<Candidate>> groups = new ArrayList<>();
+        for (List<Candidate> group : bySize.values()) {
+            if (group.size() > 1) {
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Computes keys of all the candidates in parallel and splits every group by equal keys.
+     * Candidates whose key cannot be computed and groups of one file are dropped.
+     */
+    private static List<List<Candidate>> regroup(
+            List<List<Candidate>> groups,
+            ExecutorService executor,
+            KeyFunction function
+    ) throws IOException {
+        List<Future<byte[]>> keys = new ArrayList<>();
+        for (List<Candidate> group : groups) {
+            for (Candidate candidate : group) {
+                keys.add(executor.submit(() -> function.apply(candidate)));
+            }
+        }
+
+        List<List<Candidate>> result = new ArrayList<>();
+        int i = 0;
+        for (List<Candidate> group : groups) {
+            Map<ByteBuffer, List<Candidate>> byKey = new LinkedHashMap<>();
+
+            for (Candidate candidate : group) {
+                byte[] key = await(keys.get(i++));
+                if (key != null) {
+                    candidate.key = key;
+                    byKey.computeIfAbsent(ByteBuffer.wrap(key), k -> new ArrayList<>()).add(candidate);
+                }
+            }
+
+            for (List<Candidate> subgroup : byKey.values()) {
+                if (subgroup.size() > 1) {
+                    result.add(subgroup);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static byte[] await(Future<byte[]> key) throws IOException {
+        try {
+            return key.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for hash: " + e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException || e.getCause() instanceof SecurityException) {
+                return null;
+            }
+            throw new IllegalStateException("hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Hashes the first and the last {@link #SAMPLE_SIZE} bytes of the file, or the whole file if it is small.
+     */
+    private static byte[] sample(Candidate candidate) throws IOException {
+        Hasher hasher = HashAlgorithm.XXHASH_64.newHasher();
+        long size = candidate.size;
+
+        try (FileChannel channel = FileChannel.open(candidate.path, StandardOpenOption.READ)) {
+            if (size <= 2 * SAMPLE_SIZE) {
+                FileHasher.hashRange(channel, 0, size, hasher);
+            } else {
+                FileHasher.hashRange(channel, 0, SAMPLE_SIZE, hasher);
+                FileHasher.hashRange(channel, size - SAMPLE_SIZE, SAMPLE_SIZE, hasher);
+            }
+        }
+
+        return hasher.digest();
+    }
+
+    @FunctionalInterface
+    private interface KeyFunction {
+        byte[] apply(Candidate candidate) throws IOException;
+    }
+
+    private static final class Candidate {
+        private final int index;
+        private final String name;
+        private final Path path;
+        private final long size;
+        // key of the last grouping
+        private byte[] key;
+
+        private Candidate(int index, String name, Path path, long size) {
+            this.index = index;
+            this.name = name;
+            this.path = path;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Computes digests of files with a fixed {@link HashAlgorithm}. Implementations are thread-safe.
+ */
+interface FileDigester {
+    /**
+     * Returns the algorithm digests are computed with.
+     */
+    HashAlgorithm algorithm();
+
+    /**
+     * Returns a name which distinguishes digests of this digester from others, used by {@link HashCache}.
+     */
+    default String name() {
+        return algorithm().getName();
+    }
+
+    /**
+     * Computes digest of the {@code file} contents.
+     *
+     * @throws IOException if the file cannot be read.
+     */
+    byte[] digest(Path file) throws IOException;
+}
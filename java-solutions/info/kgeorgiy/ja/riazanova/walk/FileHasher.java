@@ -0,0 +1,122 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads files through NIO channels and feeds their contents to a {@link Hasher}.
+ */
+final class FileHasher implements FileDigester {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // files of at least this size are hashed through memory mapping
+    private static final long MAPPING_THRESHOLD = 1 << 20;
+    // mapped windows are released only by GC, so each one is small and used for a single update
+    private static final long MAPPING_WINDOW = 1 << 22;
+    private static final ThreadLocal<ByteBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private static final LongAdder BYTES_READ = new LongAdder();
+
+    private final HashAlgorithm algorithm;
+
+    FileHasher(HashAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns total number of bytes hashed by all the readers of this class, used by {@link WalkMetrics}.
+     */
+    static long bytesRead() {
+        return BYTES_READ.sum();
+    }
+
+    @Override
+    public byte[] digest(Path file) throws IOException {
+        Hasher hasher = algorithm.newHasher();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size >= MAPPING_THRESHOLD) {
+                hashMapped(channel, 0, size, hasher);
+            } else {
+                hashBuffered(channel, hasher);
+            }
+        }
+
+        return hasher.digest();
+    }
+
+    /**
+     * Reads the channel through a per-thread direct buffer, so no copy to the heap is made.
+     */
+    private static void hashBuffered(FileChannel channel, Hasher hasher) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+
+        buffer.clear();
+        while (channel.read(buffer) >= 0) {
+            BYTES_READ.add(buffer.position());
+            hasher.update(buffer.flip());
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Feeds {@code length} bytes of the channel starting from {@code position} to the {@code hasher}.
+     * Only positional reads are used, so the channel may be shared between threads.
+     *
+     * @throws IOException if the channel cannot be read or ends before {@code position + length}.
+     */
+    static void hashRange(FileChannel channel, long position, long length, Hasher hasher) throws IOException {
+        if (length >= MAPPING_THRESHOLD) {
+            hashMapped(channel, position, position + length, hasher);
+        } else {
+            hashRead(channel, position, position + length, hasher);
+        }
+    }
+
+    private static void hashRead(FileChannel channel, long position, long end, Hasher hasher) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("File was truncated while reading");
+            }
+
+            position += read;
+            BYTES_READ.add(read);
+            hasher.update(buffer.flip());
+        }
+    }
+
+    /**
+     * Maps the file window by window, so files bigger than RAM (and than 2 GB) are supported.
+     * Access to a mapped page past the end of a file faults, so a window beyond the current size
+     * of the file is read instead of mapped.
+     *
+     * @throws IOException if the file cannot be mapped or was truncated while reading.
+     */
+    private static void hashMapped(FileChannel channel, long from, long to, Hasher hasher) throws IOException {
+        for (long position = from; position < to; position += MAPPING_WINDOW) {
+            long length = Math.min(MAPPING_WINDOW, to - position);
+            if (channel.size() < position + length) {
+                hashRead(channel, position, to, hasher);
+                return;
+            }
+
+            hasher.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            BYTES_READ.add(length);
+        }
+    }
+}
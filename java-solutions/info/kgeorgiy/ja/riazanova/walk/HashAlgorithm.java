@@ -0,0 +1,78 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Hash functions supported by {@link Walk}.
+ */
+public enum HashAlgorithm {
+    /**
+     * 32-bit Jenkins one-at-a-time hash, the default one.
+     */
+    JENKINS("jenkins", 4, JenkinsHasher::new),
+    /**
+     * SHA-256 from {@link java.security.MessageDigest}.
+     */
+    SHA_256("sha-256", 32, Sha256Hasher::new),
+    /**
+     * 64-bit xxHash (XXH64), consumes input by 8-byte words.
+     */
+    XXHASH_64("xxh64", 8, XxHash64Hasher::new),
+    /**
+     * 128-bit MurmurHash3 (x64 variant), consumes input by 8-byte words.
+     */
+    MURMUR3_128("murmur3-128", 16, Murmur3Hasher::new);
+
+    private final String name;
+    private final int digestLength;
+    private final Supplier<Hasher> factory;
+
+    HashAlgorithm(String name, int digestLength, Supplier<Hasher> factory) {
+        this.name = name;
+        this.digestLength = digestLength;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns an algorithm by its command line name.
+     *
+     * @throws IllegalArgumentException if there is no such algorithm.
+     */
+    public static HashAlgorithm forName(String name) {
+        for (HashAlgorithm algorithm : values()) {
+            if (algorithm.name.equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown hash algorithm: " + name + ", expected one of: " + names());
+    }
+
+    /**
+     * Returns command line names of all the algorithms separated by comma.
+     */
+    public static String names() {
+        return Arrays.stream(values()).map(HashAlgorithm::getName).collect(Collectors.joining(", "));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDigestLength() {
+        return digestLength;
+    }
+
+    /**
+     * Returns a digest written in case of errors: all zeros of the digest length.
+     */
+    public byte[] invalidDigest() {
+        return new byte[digestLength];
+    }
+
+    public Hasher newHasher() {
+        return factory.get();
+    }
+}
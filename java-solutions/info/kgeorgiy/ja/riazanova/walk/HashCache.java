@@ -0,0 +1,159 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent cache of file digests.
+ * A file is not read again if its size, last modification time and file key (inode) are the same
+ * as at the moment it was hashed last time.
+ * <p>
+ * Index file format: magic, version, {@link FileDigester#name() digester name}, number of entries and entries of form
+ * {@code path size mtime(ns) file-key digest}, everything written by {@link DataOutputStream}.
+ * Only the entries of the files hashed during the current run are saved, so deleted files drop out.
+ */
+final class HashCache implements FileDigester {
+    private static final int MAGIC = 0x57414C4B;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final FileDigester digester;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private HashCache(Path file, FileDigester digester, Map<String, Entry> previous) {
+        this.file = file;
+        this.digester = digester;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the index from {@code file}. A missing, corrupted or foreign index is treated as empty.
+     *
+     * @param digester is used for the files which are not in the index or have changed.
+     */
+    static HashCache load(Path file, FileDigester digester) {
+        int digestLength = digester.algorithm().getDigestLength();
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !digester.name().equals(in.readUTF())) {
+                System.err.println("Hash cache " + file + " is of other version or algorithm, ignoring it");
+                return new HashCache(file, digester, Map.of());
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                String key = in.readUTF();
+                byte[] digest = new byte[digestLength];
+                in.readFully(digest);
+
+                entries.put(path, new Entry(size, modified, key, digest));
+            }
+        } catch (NoSuchFileException e) {
+            // first run
+        } catch (EOFException e) {
+            System.err.println("Hash cache " + file + " is truncated, ignoring it");
+            entries.clear();
+        } catch (IOException e) {
+            System.err.println("Cannot read hash cache " + file + ", ignoring it: " + e.getMessage());
+            entries.clear();
+        }
+
+        return new HashCache(file, digester, entries);
+    }
+
+    @Override
+    public HashAlgorithm algorithm() {
+        return digester.algorithm();
+    }
+
+    @Override
+    public String name() {
+        return digester.name();
+    }
+
+    @Override
+    public byte[] digest(Path path) throws IOException {
+        String name = path.toAbsolutePath().toString();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        Object fileKey = attributes.fileKey();
+        String key = fileKey == null ? "" : fileKey.toString();
+
+        Entry entry = previous.get(name);
+        if (entry == null || !entry.matches(size, modified, key)) {
+            // attributes are taken before reading, so a file changed meanwhile is rehashed next time
+            entry = new Entry(size, modified, key, digester.digest(path));
+        }
+
+        current.put(name, entry);
+        return entry.digest;
+    }
+
+    /**
+     * Writes the entries of the files hashed since {@link #load} to the index file.
+     * The file is replaced atomically, so an interrupted run does not corrupt it.
+     */
+    void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(digester.name());
+                out.writeInt(current.size());
+
+                for (Map.Entry<String, Entry> e : current.entrySet()) {
+                    Entry entry = e.getValue();
+                    out.writeUTF(e.getKey());
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.modified);
+                    out.writeUTF(entry.key);
+                    out.write(entry.digest);
+                }
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long modified;
+        private final String key;
+        private final byte[] digest;
+
+        private Entry(long size, long modified, String key, byte[] digest) {
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+            this.digest = digest;
+        }
+
+        private boolean matches(long size, long modified, String key) {
+            return this.size == size && this.modified == modified && Objects.equals(this.key, key);
+        }
+    }
+}
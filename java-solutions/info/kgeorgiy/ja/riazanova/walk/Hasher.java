@@ -0,0 +1,23 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental hash function. Instances are not thread-safe and are used for a single file.
+ */
+public interface Hasher {
+    /**
+     * Feeds all remaining bytes of {@code data} to the hash function.
+     * Position of {@code data} is moved to its limit.
+     *
+     * @param data next portion of the input.
+     */
+    void update(ByteBuffer data);
+
+    /**
+     * Finishes the computation.
+     *
+     * @return digest of all the bytes passed to {@link #update(ByteBuffer)}.
+     */
+    byte[] digest();
+}
@@ -0,0 +1,35 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Jenkins one-at-a-time hash, digest is written in big-endian order.
+ */
+final class JenkinsHasher implements Hasher {
+    private int hash = 0;
+
+    @Override
+    public void update(ByteBuffer data) {
+        int hash = this.hash;
+
+        for (int i = data.position(), limit = data.limit(); i < limit; i++) {
+            hash += data.get(i) & 0xff;
+            hash += hash << 10;
+            hash ^= hash >>> 6;
+        }
+
+        this.hash = hash;
+        data.position(data.limit());
+    }
+
+    @Override
+    public byte[] digest() {
+        int hash = this.hash;
+
+        hash += hash << 3;
+        hash ^= hash >>> 11;
+        hash += hash << 15;
+
+        return ByteBuffer.allocate(Integer.BYTES).putInt(hash).array();
+    }
+}
@@ -0,0 +1,80 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * MurmurHash3 x64 128-bit with zero seed, digest is {@code h1} followed by {@code h2}, both little-endian.
+ */
+final class Murmur3Hasher extends BlockHasher {
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private long h1 = 0;
+    private long h2 = 0;
+
+    Murmur3Hasher() {
+        super(16);
+    }
+
+    @Override
+    protected void processBlock(ByteBuffer data, int offset) {
+        h1 ^= mixK1(data.getLong(offset));
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52DCE729;
+
+        h2 ^= mixK2(data.getLong(offset + 8));
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495AB5;
+    }
+
+    @Override
+    protected byte[] finish(ByteBuffer tail, long length) {
+        long k1 = 0;
+        long k2 = 0;
+
+        for (int i = tail.limit() - 1; i >= Long.BYTES; i--) {
+            k2 = (k2 << 8) | (tail.get(i) & 0xFFL);
+        }
+        for (int i = Math.min(tail.limit(), Long.BYTES) - 1; i >= 0; i--) {
+            k1 = (k1 << 8) | (tail.get(i) & 0xFFL);
+        }
+
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+
+        return ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(h1).putLong(h2).array();
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,116 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+
+public class RecursiveWalk {
+    /**
+     * Usage: {@code java RecursiveWalk [-threads <n>] [-hash <algorithm>] [-cache <файл кеша>]
+     * [-tree <размер блока> [-chunks <файл блоков>]] [-metrics <период в секундах>] <входной файл> <выходной файл>}.
+     * Directories from the input file are walked recursively by a fork/join pool
+     * of {@code n} threads (all available processors by default).
+     * Files of one directory tree are written in no particular order,
+     * but trees are written in the order of the input file.
+     */
+    public static void main(String[] args) {
+        Walk.run(args, Runtime.getRuntime().availableProcessors(), false, RecursiveWalk::walk);
+    }
+
+    private static void walk(
+            BufferedReader in,
+            ResultWriter out,
+            WalkOptions options,
+            FileDigester digester,
+            WalkMetrics metrics
+    ) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(options.threads);
+        metrics.setQueueDepth(pool::getQueuedTaskCount);
+
+        try {
+            String fileName;
+
+            while ((fileName = in.readLine()) != null) {
+                Path path;
+                try {
+                    path = Path.of(fileName);
+                } catch (InvalidPathException e) {
+                    metrics.recordError(e);
+                    out.write(digester.algorithm().invalidDigest(), fileName);
+                    continue;
+                }
+
+                try {
+                    pool.invoke(new WalkTask(null, path, fileName, digester, out));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Hashes a file or forks a task for every entry of a directory.
+     * Tasks never wait for their children, so the depth of a tree does not affect the stack.
+     */
+    private static final class WalkTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+        private final String name;
+        private final FileDigester digester;
+        private final ResultWriter out;
+
+        private WalkTask(
+                CountedCompleter<?> parent,
+                Path path,
+                String name,
+                FileDigester digester,
+                ResultWriter out
+        ) {
+            super(parent);
+            this.path = path;
+            this.name = name;
+            this.digester = digester;
+            this.out = out;
+        }
+
+        @Override
+        public void compute() {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                    for (Path entry : entries) {
+                        addToPendingCount(1);
+                        new WalkTask(this, entry, entry.toString(), digester, out).fork();
+                    }
+                } catch (IOException | DirectoryIteratorException | SecurityException e) {
+                    write(digester.algorithm().invalidDigest());
+                }
+            } else {
+                write(Walk.countHash(path, digester));
+            }
+
+            tryComplete();
+        }
+
+        private void write(byte[] digest) {
+            synchronized (out) {
+                try {
+                    out.write(digest, name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
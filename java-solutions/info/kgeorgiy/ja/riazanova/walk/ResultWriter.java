@@ -0,0 +1,113 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes lines {@code <hex digest> <file name>} in UTF-8.
+ * Hex digits and file names are encoded straight into one reusable buffer,
+ * which is written to the channel when it is full.
+ * Not thread-safe.
+ */
+final class ResultWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 18;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    // reports malformed names, as the writers of Files.newBufferedWriter do
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    private ResultWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens (creates or truncates) the {@code file} for writing.
+     */
+    static ResultWriter open(Path file) throws IOException {
+        return new ResultWriter(FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        ));
+    }
+
+    /**
+     * Writes a line with the {@code digest} in lowercase hex and the {@code fileName}.
+     */
+    void write(byte[] digest, String fileName) throws IOException {
+        ensureRemaining(2 * digest.length + 1);
+        for (byte b : digest) {
+            buffer.put(HEX_DIGITS[(b >> 4) & 0xF]);
+            buffer.put(HEX_DIGITS[b & 0xF]);
+        }
+        buffer.put((byte) ' ');
+
+        writeString(fileName);
+
+        ensureRemaining(LINE_SEPARATOR.length);
+        buffer.put(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes an empty line.
+     */
+    void writeEmptyLine() throws IOException {
+        ensureRemaining(LINE_SEPARATOR.length);
+        buffer.put(LINE_SEPARATOR);
+    }
+
+    private void writeString(String s) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(s);
+        CoderResult result;
+
+        encoder.reset();
+        while ((result = encoder.encode(chars, buffer, true)).isOverflow()) {
+            flushBuffer();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            flushBuffer();
+        }
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes buffered lines and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
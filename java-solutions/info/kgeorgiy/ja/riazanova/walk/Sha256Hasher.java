@@ -0,0 +1,28 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+final class Sha256Hasher implements Hasher {
+    private final MessageDigest digest;
+
+    Sha256Hasher() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new AssertionError("SHA-256 is not supported", e);
+        }
+    }
+
+    @Override
+    public void update(ByteBuffer data) {
+        digest.update(data);
+    }
+
+    @Override
+    public byte[] digest() {
+        return digest.digest();
+    }
+}
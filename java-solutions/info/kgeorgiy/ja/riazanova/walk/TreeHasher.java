@@ -0,0 +1,178 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Tree (Merkle) digest: a file is split into chunks of fixed size, chunks are hashed in parallel
+ * and their digests are combined pairwise up to the root.
+ * <p>
+ * Leaf is {@code H(0x00 || chunk)}, inner node is {@code H(0x01 || left || right)},
+ * a node without a pair is moved to the next level as is. An empty file consists of one empty chunk.
+ * <p>
+ * Such a tree is a right fold of perfect subtrees, so only roots of complete subtrees are kept:
+ * leaves are hashed in parallel by batches, every full batch is reduced to the root of its subtree,
+ * and subtrees of equal height are merged on a stack. Memory does not depend on the size of a file.
+ */
+final class TreeHasher implements FileDigester {
+    private static final byte[] LEAF_PREFIX = {0};
+    private static final byte[] NODE_PREFIX = {1};
+    // number of leaves hashed at once, a power of two
+    private static final int BATCH_HEIGHT = 12;
+    private static final int BATCH = 1 << BATCH_HEIGHT;
+
+    private final HashAlgorithm algorithm;
+    private final long chunkSize;
+    // null if chunk digests are not needed
+    private final ResultWriter chunks;
+
+    /**
+     * @param chunks receives lines {@code <chunk digest> <chunk offset> <file>} for every hashed file,
+     *               may be {@code null}.
+     */
+    TreeHasher(HashAlgorithm algorithm, long chunkSize, ResultWriter chunks) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, provided: " + chunkSize);
+        }
+
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.chunks = chunks;
+    }
+
+    @Override
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String name() {
+        return algorithm.getName() + "-tree-" + chunkSize;
+    }
+
+    @Override
+    public byte[] digest(Path file) throws IOException {
+        SubtreeStack subtrees = new SubtreeStack();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long count = Math.max(1, size / chunkSize + (size % chunkSize == 0 ? 0 : 1));
+
+            for (long first = 0; first < count; first += BATCH) {
+                long offset = first * chunkSize;
+                byte[][] leaves;
+                try {
+                    leaves = IntStream.range(0, (int) Math.min(BATCH, count - first))
+                            .parallel()
+                            .mapToObj(i -> {
+                                long position = offset + i * chunkSize;
+                                return hashChunk(channel, position, Math.min(chunkSize, size - position));
+                            })
+                            .toArray(byte[][]::new);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+
+                if (chunks != null) {
+                    writeChunks(file, offset, leaves);
+                }
+
+                if (leaves.length == BATCH) {
+                    subtrees.push(root(leaves), BATCH_HEIGHT);
+                } else {
+                    // the last batch is not a perfect subtree
+                    for (byte[] leaf : leaves) {
+                        subtrees.push(leaf, 0);
+                    }
+                }
+            }
+        }
+
+        return subtrees.root();
+    }
+
+    private byte[] hashChunk(FileChannel channel, long position, long length) {
+        Hasher hasher = algorithm.newHasher();
+        hasher.update(ByteBuffer.wrap(LEAF_PREFIX));
+
+        try {
+            FileHasher.hashRange(channel, position, length, hasher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return hasher.digest();
+    }
+
+    private byte[] node(byte[] left, byte[] right) {
+        Hasher hasher = algorithm.newHasher();
+        hasher.update(ByteBuffer.wrap(NODE_PREFIX));
+        hasher.update(ByteBuffer.wrap(left));
+        hasher.update(ByteBuffer.wrap(right));
+        return hasher.digest();
+    }
+
+    private byte[] root(byte[][] level) {
+        while (level.length > 1) {
+            byte[][] next = new byte[(level.length + 1) / 2][];
+
+            for (int i = 0; i < next.length; i++) {
+                if (2 * i + 1 < level.length) {
+                    next[i] = node(level[2 * i], level[2 * i + 1]);
+                } else {
+                    next[i] = level[2 * i];
+                }
+            }
+
+            level = next;
+        }
+
+        return level[0];
+    }
+
+    // lines of a file are in order of offsets, but may interleave with lines of files hashed concurrently
+    private void writeChunks(Path file, long offset, byte[][] leaves) throws IOException {
+        String name = file.toString();
+
+        synchronized (chunks) {
+            for (int i = 0; i < leaves.length; i++) {
+                chunks.write(leaves[i], offset + i * chunkSize + " " + name);
+            }
+        }
+    }
+
+    /**
+     * Roots of perfect subtrees in the order of the file, heights strictly decrease from the bottom.
+     * At most one subtree of each height is kept, so the stack is {@code O(log n)} for {@code n} leaves.
+     */
+    private final class SubtreeStack {
+        private final byte[][] roots = new byte[Long.SIZE + 1][];
+        private final int[] heights = new int[Long.SIZE + 1];
+        private int size;
+
+        void push(byte[] root, int height) {
+            while (size > 0 && heights[size - 1] == height) {
+                root = node(roots[--size], root);
+                height++;
+            }
+            roots[size] = root;
+            heights[size++] = height;
+        }
+
+        /**
+         * Joins the subtrees from the right, as nodes without a pair are moved up to the top.
+         */
+        byte[] root() {
+            byte[] root = roots[--size];
+            while (size > 0) {
+                root = node(roots[--size], root);
+            }
+            return root;
+        }
+    }
+}
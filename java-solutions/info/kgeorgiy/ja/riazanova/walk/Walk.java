@@ -4,27 +4,75 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class Walk {
-    private static final String INVALID_HASH = "0".repeat(8);
-    private static final int BUFFER_SIZE = 4096;
+    // how many files may be hashed ahead of the writer, per thread
+    private static final int FILES_IN_FLIGHT_PER_THREAD = 64;
 
+    /**
+     * Usage: {@code java Walk [-threads <n>] [-hash <algorithm>] [-cache <файл кеша>]
+     * [-tree <размер блока> [-chunks <файл блоков>]] [-dedup] [-metrics <период в секундах>]
+     * <входной файл> <выходной файл>}.
+     * With {@code -threads} files are hashed by a pool of {@code n} threads,
+     * lines are still written in the order of the input file.
+     * {@code -hash} selects one of the {@link HashAlgorithm}s, Jenkins hash is used by default.
+     * With {@code -cache} unchanged files take their hashes from the given index file, see {@link HashCache}.
+     * With {@code -tree} files are split into chunks hashed in parallel, see {@link TreeHasher};
+     * {@code -chunks} additionally writes digests of the chunks and cannot be combined with {@code -cache}.
+     * With {@code -dedup} only groups of files with equal contents are written, see {@link DuplicateFinder}.
+     * With {@code -metrics} progress is printed to {@code System.err} every given number of seconds
+     * and exposed through JMX, see {@link WalkMetricsMXBean}.
+     */
     public static void main(String[] args) {
-        if (args == null || args.length != 2) {
-            System.err.println("2 args needed : <входной файл> <выходной файл> ...");
+        run(args, 1, true, Walk::walk);
+    }
+
+    /**
+     * Walks over the list of files.
+     */
+    @FunctionalInterface
+    interface Walker {
+        /**
+         * Writes a line to {@code out} for every file listed in {@code in}.
+         */
+        void walk(
+                BufferedReader in,
+                ResultWriter out,
+                WalkOptions options,
+                FileDigester digester,
+                WalkMetrics metrics
+        ) throws IOException;
+    }
+
+    /**
+     * Checks the arguments, opens input and output files and passes them to the {@code walker}.
+     *
+     * @param defaultThreads number of threads used when {@code -threads} is not given.
+     * @param dedupSupported whether the {@code walker} supports {@code -dedup}.
+     */
+    static void run(String[] args, int defaultThreads, boolean dedupSupported, Walker walker) {
+        WalkOptions options;
+        try {
+            options = WalkOptions.parse(args, defaultThreads, dedupSupported);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
             return;
         }
 
         Path inputFile;
         Path outputFile;
 
-        String inputFileName = args[0];
-        String outputFileName = args[1];
-
-        if (inputFileName == null || outputFileName == null) {
-            System.err.println("invalid arguments.. not null please");
-            return;
-        }
+        String inputFileName = options.inputFileName;
+        String outputFileName = options.outputFileName;
 
         try {
             inputFile = Path.of(inputFileName);
@@ -60,13 +108,54 @@ public class Walk {
 
         }
 
+        Path cacheFile = null;
+        if (options.cacheFileName != null) {
+            cacheFile = optionalPath(options.cacheFileName, "cache");
+            if (cacheFile == null) {
+                return;
+            }
+        }
+
+        Path chunksFile = null;
+        if (options.chunksFileName != null) {
+            chunksFile = optionalPath(options.chunksFileName, "chunks");
+            if (chunksFile == null) {
+                return;
+            }
+        }
+
         try (BufferedReader in = Files.newBufferedReader(inputFile)) {
-            try (BufferedWriter out = Files.newBufferedWriter(outputFile)) {
-                String fileName;
+            try (
+                    ResultWriter out = ResultWriter.open(outputFile);
+                    ResultWriter chunks = chunksFile == null ? null : ResultWriter.open(chunksFile)
+            ) {
+                WalkMetrics metrics = new WalkMetrics();
+                FileDigester digester = metrics.meterHashing(options.chunkSize == 0
+                        ? new FileHasher(options.algorithm)
+                        : new TreeHasher(options.algorithm, options.chunkSize, chunks));
 
-                while ((fileName = in.readLine()) != null) {
-                    out.write(countHash(fileName) + " " + fileName + System.lineSeparator());
+                HashCache cache = null;
+                if (cacheFile != null) {
+                    cache = HashCache.load(cacheFile, digester);
+                    digester = cache;
+                }
+                digester = metrics.meter(digester);
 
+                if (options.metricsPeriod > 0) {
+                    metrics.startReporting(options.metricsPeriod);
+                }
+                try {
+                    walker.walk(in, out, options, digester, metrics);
+                } finally {
+                    metrics.stopReporting();
+                }
+
+                if (cache != null) {
+                    try {
+                        cache.save();
+                    } catch (IOException e) {
+                        System.err.println("Cannot save hash cache: " + e.getMessage());
+                    }
                 }
             } catch (IOException e) {
                 System.err.println("problem with writing: " + System.lineSeparator() + e.getMessage());
@@ -76,29 +165,104 @@ public class Walk {
         }
     }
 
-    private static String countHash(String fileName) {
-        try (FileInputStream in = new FileInputStream(fileName)) {
-            byte[] bytes = new byte[BUFFER_SIZE];
-            int cnt;
-            int hash = 0;
+    private static Path optionalPath(String fileName, String description) {
+        try {
+            return Path.of(fileName);
+        } catch (InvalidPathException e) {
+            System.err.println(
+                    "An invalid path provided for " + description + " file: " + fileName + ". Message: " + e.getMessage()
+            );
+            return null;
+        }
+    }
+
+    private static void walk(
+            BufferedReader in,
+            ResultWriter out,
+            WalkOptions options,
+            FileDigester digester,
+            WalkMetrics metrics
+    ) throws IOException {
+        if (options.dedup) {
+            DuplicateFinder.find(in, out, options.threads, digester, metrics);
+        } else if (options.threads == 1) {
+            String fileName;
+
+            while ((fileName = in.readLine()) != null) {
+                out.write(countHash(fileName, digester, metrics), fileName);
+            }
+        } else {
+            walkInParallel(in, out, options.threads, digester, metrics);
+        }
+    }
+
+    /**
+     * Hashes files listed in {@code in} using a pool of {@code threads} threads.
+     * At most {@code threads * FILES_IN_FLIGHT_PER_THREAD} files are in flight at once,
+     * so the input list is never read into memory as a whole.
+     * Lines are written in the order of the input list.
+     */
+    private static void walkInParallel(
+            BufferedReader in,
+            ResultWriter out,
+            int threads,
+            FileDigester digester,
+            WalkMetrics metrics
+    ) throws IOException {
+        BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue);
+        metrics.setQueueDepth(queue::size);
+        Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        Deque<String> names = new ArrayDeque<>();
+        int maxInFlight = threads * FILES_IN_FLIGHT_PER_THREAD;
 
-            while ((cnt = in.read(bytes, 0, bytes.length)) >= 0) {
+        try {
+            String fileName;
 
-                for (int b = 0; b < cnt; b++) {
-                    hash += bytes[b] & 0xff;
-                    hash += hash << 10;
-                    hash ^= hash >>> 6;
+            while ((fileName = in.readLine()) != null) {
+                final String name = fileName;
+                inFlight.add(executor.submit(() -> countHash(name, digester, metrics)));
+                names.add(name);
 
+                if (inFlight.size() >= maxInFlight) {
+                    out.write(await(inFlight.poll()), names.poll());
                 }
+            }
 
+            while (!inFlight.isEmpty()) {
+                out.write(await(inFlight.poll()), names.poll());
             }
-            hash += hash << 3;
-            hash ^= hash >>> 11;
-            hash += hash << 15;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] await(Future<byte[]> digest) throws IOException {
+        try {
+            return digest.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for hash: " + e.getMessage());
+        } catch (ExecutionException e) {
+            // countHash never throws checked exceptions, so it is a bug
+            throw new IllegalStateException("hashing failed", e.getCause());
+        }
+    }
 
-            return String.format("%08x", hash);
-        } catch (IOException | InvalidPathException | SecurityException e) {
-            return INVALID_HASH;
+    private static byte[] countHash(String fileName, FileDigester digester, WalkMetrics metrics) {
+        try {
+            return countHash(Path.of(fileName), digester);
+        } catch (InvalidPathException e) {
+            metrics.recordError(e);
+            return digester.algorithm().invalidDigest();
+        }
+    }
+
+    static byte[] countHash(Path file, FileDigester digester) {
+        try {
+            return digester.digest(file);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            return digester.algorithm().invalidDigest();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,297 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters of a {@link Walk} run: files, bytes read, errors and hash latencies.
+ * Updated by {@link #meter(FileDigester) metered} digesters from any thread.
+ * Files taken from a {@link HashCache} are counted as cache hits, only the files actually hashed
+ * are {@link #meterHashing(FileDigester) metered} for throughput and latency.
+ */
+final class WalkMetrics implements WalkMetricsMXBean {
+    private static final String OBJECT_NAME = "info.kgeorgiy.ja.riazanova.walk:type=WalkMetrics";
+    // bucket i counts latencies in [2^(i-1), 2^i) microseconds
+    private static final int BUCKETS = 40;
+
+    private final long start = System.nanoTime();
+    private final long startBytes = FileHasher.bytesRead();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder hashedFiles = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+    private volatile LongSupplier queueDepth = () -> 0;
+
+    // reporting is started and stopped by the walking thread
+    private ScheduledExecutorService reporter;
+    private Future<?> reports;
+    private ObjectName registeredName;
+
+    // last report, accessed from the reporting thread only
+    private long reportTime = start;
+    private long reportHashedFiles = 0;
+    private long reportBytes = 0;
+
+    /**
+     * Returns a digester that records every processed file and every failure of {@code digester}.
+     */
+    FileDigester meter(FileDigester digester) {
+        return new FileDigester() {
+            @Override
+            public HashAlgorithm algorithm() {
+                return digester.algorithm();
+            }
+
+            @Override
+            public String name() {
+                return digester.name();
+            }
+
+            @Override
+            public byte[] digest(Path file) throws IOException {
+                try {
+                    byte[] digest = digester.digest(file);
+                    files.increment();
+                    return digest;
+                } catch (IOException | RuntimeException e) {
+                    recordError(e);
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a digester that records hash latency of every file successfully hashed by {@code digester}.
+     * Used under a {@link HashCache}, so cache hits do not count as hashed files.
+     */
+    FileDigester meterHashing(FileDigester digester) {
+        return new FileDigester() {
+            @Override
+            public HashAlgorithm algorithm() {
+                return digester.algorithm();
+            }
+
+            @Override
+            public String name() {
+                return digester.name();
+            }
+
+            @Override
+            public byte[] digest(Path file) throws IOException {
+                long time = System.nanoTime();
+                byte[] digest = digester.digest(file);
+                recordHashedFile(System.nanoTime() - time);
+                return digest;
+            }
+        };
+    }
+
+    /**
+     * Sets the source of {@link #getQueueDepth()}.
+     */
+    void setQueueDepth(LongSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    private void recordHashedFile(long nanos) {
+        hashedFiles.increment();
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        latencies.incrementAndGet(Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros)));
+    }
+
+    /**
+     * Records a failure that happened before the file reached a metered digester, such as an invalid path.
+     */
+    void recordError(Exception e) {
+        errors.increment();
+        errorsByType.computeIfAbsent(e.getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Registers these metrics in the platform MBean server and starts printing them to {@code System.err}
+     * every {@code period} seconds.
+     */
+    void startReporting(long period) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            registeredName = new ObjectName(OBJECT_NAME);
+            server.registerMBean(this, registeredName);
+        } catch (JMException e) {
+            System.err.println("Cannot register metrics in JMX: " + e.getMessage());
+            registeredName = null;
+        }
+
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "walk-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reports = reporter.scheduleAtFixedRate(this::print, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Prints the final metrics and unregisters them from JMX, if reporting was started.
+     */
+    void stopReporting() {
+        if (reporter == null) {
+            return;
+        }
+
+        // the final report runs on the reporting thread after a report that may be in progress
+        reports.cancel(false);
+        Future<?> last = reporter.submit(this::print);
+        reporter.shutdown();
+        try {
+            last.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Cannot print metrics: " + e.getCause().getMessage());
+        }
+        reporter = null;
+        reports = null;
+
+        if (registeredName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            } catch (JMException ignored) {
+            }
+            registeredName = null;
+        }
+    }
+
+    private void print() {
+        long time = System.nanoTime();
+        long hashed = getHashedFiles();
+        long bytes = getBytes();
+        double seconds = Math.max(1, time - reportTime) / 1e9;
+
+        System.err.printf(
+                "files: %d, hashed: %d (%.1f/s), cache hits: %d, bytes: %d (%.1f MB/s), errors: %d %s, "
+                        + "latency p50/p90/p99: %d/%d/%d us, queue: %d%n",
+                getFiles(), hashed, (hashed - reportHashedFiles) / seconds, getCacheHits(),
+                bytes, (bytes - reportBytes) / seconds / (1 << 20),
+                getErrors(), getErrorsByType(),
+                getLatencyP50Micros(), getLatencyP90Micros(), getLatencyP99Micros(),
+                getQueueDepth()
+        );
+
+        reportTime = time;
+        reportHashedFiles = hashed;
+        reportBytes = bytes;
+    }
+
+    @Override
+    public long getFiles() {
+        return files.sum();
+    }
+
+    @Override
+    public long getHashedFiles() {
+        return hashedFiles.sum();
+    }
+
+    @Override
+    public long getCacheHits() {
+        // a file is counted as hashed before it is counted as processed
+        return Math.max(0, getFiles() - getHashedFiles());
+    }
+
+    @Override
+    public long getBytes() {
+        return FileHasher.bytesRead() - startBytes;
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getFilesPerSecond() {
+        return getHashedFiles() / elapsedSeconds();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return getBytes() / elapsedSeconds();
+    }
+
+    private double elapsedSeconds() {
+        return Math.max(1, System.nanoTime() - start) / 1e9;
+    }
+
+    @Override
+    public Map<String, Long> getErrorsByType() {
+        Map<String, Long> result = new TreeMap<>();
+        errorsByType.forEach((type, count) -> result.put(type, count.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<Long, Long> getLatencyHistogram() {
+        Map<Long, Long> result = new TreeMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = latencies.get(i);
+            if (count != 0) {
+                result.put(1L << i, count);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getLatencyP50Micros() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public long getLatencyP90Micros() {
+        return percentile(0.9);
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+        return percentile(0.99);
+    }
+
+    private long percentile(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latencies.get(i);
+            total += counts[i];
+        }
+
+        long rank = (long) Math.ceil(total * fraction);
+        for (int i = 0; i < BUCKETS; i++) {
+            rank -= counts[i];
+            if (rank <= 0 && counts[i] != 0) {
+                return 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return queueDepth.getAsLong();
+    }
+}
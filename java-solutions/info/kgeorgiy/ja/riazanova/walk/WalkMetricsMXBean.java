@@ -0,0 +1,53 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.util.Map;
+
+/**
+ * Progress of a {@link Walk} run exposed through JMX.
+ * Rates are averaged since the start of the run, latencies are upper bounds of power-of-two buckets.
+ */
+public interface WalkMetricsMXBean {
+    /**
+     * Returns number of successfully processed files, both hashed and taken from the cache.
+     */
+    long getFiles();
+
+    /**
+     * Returns number of files actually hashed, cache hits excluded.
+     */
+    long getHashedFiles();
+
+    long getCacheHits();
+
+    long getBytes();
+
+    long getErrors();
+
+    /**
+     * Returns number of files hashed per second, cache hits excluded.
+     */
+    double getFilesPerSecond();
+
+    double getBytesPerSecond();
+
+    /**
+     * Returns number of failed files by simple name of the exception.
+     */
+    Map<String, Long> getErrorsByType();
+
+    /**
+     * Returns number of hashed files by upper bound of hash latency in microseconds.
+     */
+    Map<Long, Long> getLatencyHistogram();
+
+    long getLatencyP50Micros();
+
+    long getLatencyP90Micros();
+
+    long getLatencyP99Micros();
+
+    /**
+     * Returns number of files waiting to be hashed, 0 if files are hashed sequentially.
+     */
+    long getQueueDepth();
+}
@@ -0,0 +1,134 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+/**
+ * Command line options of {@link Walk} and {@link RecursiveWalk}:
+ * {@code [-threads <n>] [-hash <algorithm>] [-cache <файл кеша>] [-tree <размер блока> [-chunks <файл блоков>]]
+ * [-dedup] [-metrics <период в секундах>] <входной файл> <выходной файл>}.
+ */
+final class WalkOptions {
+    static final String USAGE = "[-threads <n>] [-hash <" + HashAlgorithm.names() + ">] [-cache <файл кеша>]"
+            + " [-tree <размер блока>[K|M|G] [-chunks <файл блоков>]] [-dedup]"
+            + " [-metrics <период в секундах>] <входной файл> <выходной файл>";
+
+    private static final String THREADS_KEY = "-threads";
+    private static final String HASH_KEY = "-hash";
+    private static final String CACHE_KEY = "-cache";
+    private static final String TREE_KEY = "-tree";
+    private static final String CHUNKS_KEY = "-chunks";
+    private static final String DEDUP_KEY = "-dedup";
+    private static final String METRICS_KEY = "-metrics";
+
+    int threads;
+    HashAlgorithm algorithm = HashAlgorithm.JENKINS;
+    // null if hashes are not cached
+    String cacheFileName;
+    // 0 if files are hashed as a whole
+    long chunkSize;
+    // null if chunk digests are not written
+    String chunksFileName;
+    // print groups of duplicate files instead of hashes
+    boolean dedup;
+    // 0 if metrics are not reported
+    long metricsPeriod;
+    String inputFileName;
+    String outputFileName;
+
+    private WalkOptions(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Parses command line arguments.
+     *
+     * @param defaultThreads number of threads used when {@code -threads} is not given.
+     * @param dedupSupported whether {@code -dedup} is allowed.
+     * @throws IllegalArgumentException if the arguments are malformed.
+     */
+    static WalkOptions parse(String[] args, int defaultThreads, boolean dedupSupported) {
+        if (args == null || args.length < 2) {
+            throw new IllegalArgumentException("2 args needed : " + USAGE);
+        }
+
+        for (String arg : args) {
+            if (arg == null) {
+                throw new IllegalArgumentException("invalid arguments.. not null please");
+            }
+        }
+
+        WalkOptions options = new WalkOptions(defaultThreads);
+        int positional = args.length - 2;
+
+        for (int i = 0; i < positional; i++) {
+            String key = args[i];
+            if (DEDUP_KEY.equals(key)) {
+                if (!dedupSupported) {
+                    throw new IllegalArgumentException(DEDUP_KEY + " is supported only by Walk");
+                }
+                options.dedup = true;
+                continue;
+            }
+
+            if (++i == positional) {
+                throw new IllegalArgumentException("No value for option " + key + ", usage: " + USAGE);
+            }
+
+            String value = args[i];
+            switch (key) {
+                case THREADS_KEY -> options.threads = parsePositive(value, "Number of threads");
+                case HASH_KEY -> options.algorithm = HashAlgorithm.forName(value);
+                case CACHE_KEY -> options.cacheFileName = value;
+                case TREE_KEY -> options.chunkSize = parseSize(value);
+                case CHUNKS_KEY -> options.chunksFileName = value;
+                case METRICS_KEY -> options.metricsPeriod = parsePositive(value, "Metrics period");
+                default -> throw new IllegalArgumentException("Unknown option: " + key + ", usage: " + USAGE);
+            }
+        }
+
+        if (options.chunksFileName != null && options.chunkSize == 0) {
+            throw new IllegalArgumentException(CHUNKS_KEY + " is allowed only with " + TREE_KEY);
+        }
+        // cache hits skip hashing, so their chunk digests would never be written
+        if (options.chunksFileName != null && options.cacheFileName != null) {
+            throw new IllegalArgumentException(CHUNKS_KEY + " cannot be combined with " + CACHE_KEY);
+        }
+
+        options.inputFileName = args[positional];
+        options.outputFileName = args[positional + 1];
+        return options;
+    }
+
+    private static int parsePositive(String value, String description) {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(description + " must be an integer: " + e.getMessage());
+        }
+
+        if (number < 1) {
+            throw new IllegalArgumentException(description + " must be positive, provided: " + number);
+        }
+        return number;
+    }
+
+    private static long parseSize(String value) {
+        int shift = switch (value.isEmpty() ? ' ' : Character.toUpperCase(value.charAt(value.length() - 1))) {
+            case 'K' -> 10;
+            case 'M' -> 20;
+            case 'G' -> 30;
+            default -> 0;
+        };
+
+        long size;
+        try {
+            size = Long.parseLong(shift == 0 ? value : value.substring(0, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Chunk size must be an integer: " + e.getMessage());
+        }
+
+        if (size < 1 || size > (Long.MAX_VALUE >> shift)) {
+            throw new IllegalArgumentException("Chunk size is out of range, provided: " + value);
+        }
+        return size << shift;
+    }
+}
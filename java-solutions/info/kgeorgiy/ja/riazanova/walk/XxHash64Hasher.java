@@ -0,0 +1,82 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * XXH64 with zero seed, digest is written in big-endian (canonical) order.
+ */
+final class XxHash64Hasher extends BlockHasher {
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private long v1 = PRIME_1 + PRIME_2;
+    private long v2 = PRIME_2;
+    private long v3 = 0;
+    private long v4 = -PRIME_1;
+
+    XxHash64Hasher() {
+        super(32);
+    }
+
+    @Override
+    protected void processBlock(ByteBuffer data, int offset) {
+        v1 = round(v1, data.getLong(offset));
+        v2 = round(v2, data.getLong(offset + 8));
+        v3 = round(v3, data.getLong(offset + 16));
+        v4 = round(v4, data.getLong(offset + 24));
+    }
+
+    @Override
+    protected byte[] finish(ByteBuffer tail, long length) {
+        long hash;
+
+        if (length >= 32) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = PRIME_5;
+        }
+
+        hash += length;
+
+        while (tail.remaining() >= Long.BYTES) {
+            hash ^= round(0, tail.getLong());
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+
+        if (tail.remaining() >= Integer.BYTES) {
+            hash ^= (tail.getInt() & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+        }
+
+        while (tail.hasRemaining()) {
+            hash ^= (tail.get() & 0xFFL) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+
+        return ByteBuffer.allocate(Long.BYTES).putLong(hash).array();
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME_1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME_1 + PRIME_4;
+    }
+}
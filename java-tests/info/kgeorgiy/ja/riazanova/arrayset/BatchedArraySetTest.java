@@ -0,0 +1,82 @@
+package info.kgeorgiy.ja.riazanova.arrayset;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks that the latest update of a key wins in {@link BatchedArraySet}.
+ */
+public final class BatchedArraySetTest {
+    // equal by key, distinguished by version
+    private record Entry(int key, int version) {
+    }
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparingInt(Entry::key);
+
+    private BatchedArraySetTest() {
+    }
+
+    public static void main(String[] args) {
+        removeThenAddInOneBatch();
+        addReplacesEqualElement();
+        repeatedAddsInOneBatch();
+        addThenRemoveInOneBatch();
+        System.out.println("BatchedArraySetTest: OK");
+    }
+
+    private static void removeThenAddInOneBatch() {
+        BatchedArraySet<Entry> set = new BatchedArraySet<>(List.of(new Entry(1, 0)), BY_KEY, 16);
+        Entry latest = new Entry(1, 1);
+
+        set.remove(new Entry(1, 0));
+        set.add(latest);
+        set.flush();
+
+        checkSingle(set, latest);
+    }
+
+    private static void addReplacesEqualElement() {
+        BatchedArraySet<Entry> set = new BatchedArraySet<>(List.of(new Entry(1, 0), new Entry(2, 0)), BY_KEY, 16);
+        Entry latest = new Entry(1, 1);
+
+        set.add(latest);
+        set.flush();
+
+        check(set.snapshot().size() == 2, "size: " + set.snapshot().size());
+        check(set.snapshot().first() == latest, "first: " + set.snapshot().first());
+    }
+
+    private static void repeatedAddsInOneBatch() {
+        BatchedArraySet<Entry> set = new BatchedArraySet<>(BY_KEY, 16);
+        Entry latest = new Entry(1, 2);
+
+        set.add(new Entry(1, 0));
+        set.add(new Entry(1, 1));
+        set.add(latest);
+        check(set.pending() == 1, "pending: " + set.pending());
+        set.flush();
+
+        checkSingle(set, latest);
+    }
+
+    private static void addThenRemoveInOneBatch() {
+        BatchedArraySet<Entry> set = new BatchedArraySet<>(List.of(new Entry(1, 0)), BY_KEY, 16);
+
+        set.add(new Entry(1, 1));
+        set.remove(new Entry(1, 2));
+        set.flush();
+
+        check(set.snapshot().isEmpty(), "set must be empty: " + set.snapshot());
+    }
+
+    private static void checkSingle(BatchedArraySet<Entry> set, Entry expected) {
+        check(set.snapshot().size() == 1, "size: " + set.snapshot().size());
+        check(set.snapshot().first() == expected, "expected " + expected + ", found " + set.snapshot().first());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
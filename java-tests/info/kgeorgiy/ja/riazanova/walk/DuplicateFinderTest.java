@@ -0,0 +1,84 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Checks that {@code Walk -dedup} does not report files with colliding digests as duplicates.
+ */
+public final class DuplicateFinderTest {
+    // zero bytes around the distinct part make equal samples and keep the Jenkins state zero
+    private static final int PADDING = 1 << 12;
+
+    private DuplicateFinderTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long[] collision = jenkinsCollision();
+        Path dir = Files.createTempDirectory("duplicate-finder");
+        try {
+            Path first = Files.write(dir.resolve("first"), padded(collision[0]));
+            Path second = Files.write(dir.resolve("second"), padded(collision[1]));
+            Path copy = Files.write(dir.resolve("copy"), padded(collision[0]));
+            FileHasher jenkins = new FileHasher(HashAlgorithm.JENKINS);
+            check(Arrays.equals(jenkins.digest(first), jenkins.digest(second)), "digests must collide");
+
+            Path input = Files.write(
+                    dir.resolve("in.txt"),
+                    List.of(first.toString(), second.toString(), copy.toString())
+            );
+            Path output = dir.resolve("out.txt");
+            Walk.main(new String[]{"-dedup", input.toString(), output.toString()});
+
+            List<String> lines = Files.readAllLines(output);
+            check(lines.size() == 3, "one group of two files expected: " + lines);
+            check(lines.get(0).endsWith(" " + first), "first file expected: " + lines);
+            check(lines.get(1).endsWith(" " + copy), "copy expected: " + lines);
+            check(lines.get(2).isEmpty(), "group separator expected: " + lines);
+        } finally {
+            delete(dir);
+        }
+        System.out.println("DuplicateFinderTest: OK");
+    }
+
+    private static long[] jenkinsCollision() {
+        Map<ByteBuffer, Long> seen = new HashMap<>();
+        Random random = new Random(239);
+        while (true) {
+            long middle = random.nextLong();
+            Hasher hasher = HashAlgorithm.JENKINS.newHasher();
+            hasher.update(ByteBuffer.allocate(Long.BYTES).putLong(0, middle));
+            Long other = seen.putIfAbsent(ByteBuffer.wrap(hasher.digest()), middle);
+            if (other != null && other != middle) {
+                return new long[]{other, middle};
+            }
+        }
+    }
+
+    private static byte[] padded(long middle) {
+        return ByteBuffer.allocate(2 * PADDING + Long.BYTES).putLong(PADDING, middle).array();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
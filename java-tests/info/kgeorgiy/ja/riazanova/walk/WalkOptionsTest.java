@@ -0,0 +1,120 @@
+package info.kgeorgiy.ja.riazanova.walk;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Checks of {@link WalkOptions} parsing.
+ */
+public final class WalkOptionsTest {
+    private WalkOptionsTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        chunksWithCacheIsRejected();
+        chunksWithCacheDoesNotTouchFiles();
+        chunksWithoutCacheIsAccepted();
+        nonPositiveChunkSizeIsRejected();
+        dedupIsRejectedWhenUnsupported();
+        recursiveDedupDoesNotTouchFiles();
+        System.out.println("WalkOptionsTest: OK");
+    }
+
+    private static void chunksWithCacheIsRejected() {
+        assertRejected("-tree", "1K", "-chunks", "chunks.txt", "-cache", "cache.txt", "in.txt", "out.txt");
+        assertRejected("-cache", "cache.txt", "-tree", "1K", "-chunks", "chunks.txt", "in.txt", "out.txt");
+    }
+
+    private static void chunksWithCacheDoesNotTouchFiles() throws IOException {
+        Path dir = Files.createTempDirectory("walk-options");
+        try {
+            Path input = Files.writeString(dir.resolve("in.txt"), dir.resolve("in.txt") + System.lineSeparator());
+            Path output = dir.resolve("out.txt");
+            Path chunks = dir.resolve("chunks.txt");
+            Path cache = dir.resolve("cache.txt");
+
+            for (int run = 0; run < 2; run++) {
+                Walk.main(new String[]{
+                        "-tree", "1K", "-chunks", chunks.toString(), "-cache", cache.toString(),
+                        input.toString(), output.toString()
+                });
+            }
+
+            check(Files.notExists(output), "output file must not be created");
+            check(Files.notExists(chunks), "chunks file must not be created");
+            check(Files.notExists(cache), "cache file must not be created");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static void recursiveDedupDoesNotTouchFiles() throws IOException {
+        Path dir = Files.createTempDirectory("walk-options");
+        try {
+            Path input = Files.writeString(dir.resolve("in.txt"), dir + System.lineSeparator());
+            Path output = Files.writeString(dir.resolve("out.txt"), "previous");
+            Path chunks = Files.writeString(dir.resolve("chunks.txt"), "previous");
+
+            RecursiveWalk.main(new String[]{
+                    "-dedup", "-tree", "1K", "-chunks", chunks.toString(), input.toString(), output.toString()
+            });
+
+            check("previous".equals(Files.readString(output)), "output file must not be truncated");
+            check("previous".equals(Files.readString(chunks)), "chunks file must not be truncated");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static void chunksWithoutCacheIsAccepted() {
+        WalkOptions options = WalkOptions.parse(
+                new String[]{"-tree", "2K", "-chunks", "chunks.txt", "in.txt", "out.txt"}, 1, true
+        );
+        check(options.chunkSize == 2048, "chunk size: " + options.chunkSize);
+        check("chunks.txt".equals(options.chunksFileName), "chunks file: " + options.chunksFileName);
+        check(options.cacheFileName == null, "cache file: " + options.cacheFileName);
+    }
+
+    private static void nonPositiveChunkSizeIsRejected() {
+        assertRejected("-tree", "0", "in.txt", "out.txt");
+        assertRejected("-tree", "-1K", "in.txt", "out.txt");
+        assertRejected("-tree", "9000000000G", "in.txt", "out.txt");
+    }
+
+    private static void dedupIsRejectedWhenUnsupported() {
+        String[] args = {"-dedup", "in.txt", "out.txt"};
+        check(WalkOptions.parse(args, 1, true).dedup, "-dedup must be accepted by Walk");
+        try {
+            WalkOptions.parse(args, 1, false);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("-dedup must be rejected by RecursiveWalk");
+    }
+
+    private static void assertRejected(String... args) {
+        try {
+            WalkOptions.parse(args, 1, true);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("Options must be rejected: " + String.join(" ", args));
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}